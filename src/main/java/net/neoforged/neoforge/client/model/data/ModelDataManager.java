@@ -6,11 +6,14 @@
 package net.neoforged.neoforge.client.model.data;
 
 import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.shorts.ShortIterator;
+import it.unimi.dsi.fastutil.shorts.ShortOpenHashSet;
+import it.unimi.dsi.fastutil.shorts.ShortSet;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import net.minecraft.client.Minecraft;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.SectionPos;
 import net.minecraft.world.level.ChunkPos;
@@ -28,14 +31,24 @@ import org.jetbrains.annotations.Nullable;
 /**
  * A manager for the lifecycle of all the {@link ModelData} instances in a {@link Level}.
  * <p>
+ * Model data is stored per chunk section as an immutable snapshot, which is replaced as a whole when refresh requests for the section are processed.
+ * Snapshots can therefore be read from chunk meshing threads without locking, and {@link #getAt(SectionPos)} returns one with a single lookup.
+ * Refresh requests are batched per section and are only processed on the main client thread, the first time the section's data is queried.
+ * <p>
  * Users should not be instantiating or using this themselves unless they know what they're doing.
  */
 @ApiStatus.Internal
 @EventBusSubscriber(modid = "neoforge", bus = Bus.FORGE, value = Dist.CLIENT)
 public class ModelDataManager {
     private final Level level;
-    private final Map<ChunkPos, Set<BlockPos>> needModelDataRefresh = new ConcurrentHashMap<>();
-    private final Map<ChunkPos, Map<BlockPos, ModelData>> modelDataCache = new ConcurrentHashMap<>();
+    /**
+     * Positions that need a refresh, keyed by {@link SectionPos#asLong() packed section position} and stored as {@link #localIndex(BlockPos) local indices}.
+     */
+    private final Map<Long, ShortSet> needModelDataRefresh = new ConcurrentHashMap<>();
+    /**
+     * Model data snapshots, keyed by {@link SectionPos#asLong() packed section position}.
+     */
+    private final Map<Long, Map<BlockPos, ModelData>> modelDataCache = new ConcurrentHashMap<>();
 
     public ModelDataManager(Level level) {
         this.level = level;
@@ -43,38 +56,62 @@ public class ModelDataManager {
 
     public void requestRefresh(@NotNull BlockEntity blockEntity) {
         Preconditions.checkNotNull(blockEntity, "Block entity must not be null");
-        needModelDataRefresh.computeIfAbsent(new ChunkPos(blockEntity.getBlockPos()), $ -> Collections.synchronizedSet(new HashSet<>()))
-                .add(blockEntity.getBlockPos());
+        BlockPos pos = blockEntity.getBlockPos();
+        ShortSet needUpdate = needModelDataRefresh.computeIfAbsent(SectionPos.asLong(pos), $ -> new ShortOpenHashSet());
+        synchronized (needUpdate) {
+            needUpdate.add(localIndex(pos));
+        }
     }
 
-    private void refreshAt(ChunkPos chunk) {
-        Set<BlockPos> needUpdate = needModelDataRefresh.remove(chunk);
+    private static short localIndex(BlockPos pos) {
+        return SectionPos.sectionRelativePos(pos);
+    }
+
+    private void refreshAt(long section) {
+        if (needModelDataRefresh.isEmpty() || !Minecraft.getInstance().isSameThread())
+            return;
+        ShortSet needUpdate = needModelDataRefresh.remove(section);
 
         if (needUpdate != null) {
-            Map<BlockPos, ModelData> data = modelDataCache.computeIfAbsent(chunk, $ -> new ConcurrentHashMap<>());
-            for (BlockPos pos : needUpdate) {
-                BlockEntity toUpdate = level.getBlockEntity(pos);
-                if (toUpdate != null && !toUpdate.isRemoved()) {
-                    data.put(pos, toUpdate.getModelData());
-                } else {
-                    data.remove(pos);
+            modelDataCache.compute(section, ($, oldData) -> {
+                Map<BlockPos, ModelData> data = oldData == null ? new HashMap<>() : new HashMap<>(oldData);
+                SectionPos sectionPos = SectionPos.of(section);
+                synchronized (needUpdate) {
+                    for (ShortIterator iterator = needUpdate.iterator(); iterator.hasNext();) {
+                        BlockPos pos = sectionPos.relativeToBlockPos(iterator.nextShort());
+                        BlockEntity toUpdate = level.getBlockEntity(pos);
+                        if (toUpdate != null && !toUpdate.isRemoved()) {
+                            data.put(pos, toUpdate.getModelData());
+                        } else {
+                            data.remove(pos);
+                        }
+                    }
                 }
-            }
+                return data.isEmpty() ? null : Collections.unmodifiableMap(data);
+            });
         }
     }
 
     public @Nullable ModelData getAt(BlockPos pos) {
-        return getAt(new ChunkPos(pos)).get(pos);
+        return getAt(SectionPos.of(pos)).get(pos);
     }
 
+    /**
+     * Gets the model data of a whole chunk. This merges the data of each section of the chunk, prefer {@link #getAt(SectionPos)} where possible.
+     */
     public Map<BlockPos, ModelData> getAt(ChunkPos pos) {
-        Preconditions.checkArgument(level.isClientSide, "Cannot request model data for server level");
-        refreshAt(pos);
-        return modelDataCache.getOrDefault(pos, Collections.emptyMap());
+        Map<BlockPos, ModelData> data = new HashMap<>();
+        for (int y = level.getMinSection(); y < level.getMaxSection(); y++) {
+            data.putAll(getAt(SectionPos.of(pos, y)));
+        }
+        return data;
     }
 
     public Map<BlockPos, ModelData> getAt(SectionPos pos) {
-        return getAt(pos.chunk());
+        Preconditions.checkArgument(level.isClientSide, "Cannot request model data for server level");
+        long section = pos.asLong();
+        refreshAt(section);
+        return modelDataCache.getOrDefault(section, Collections.emptyMap());
     }
 
     @SubscribeEvent
@@ -88,7 +125,10 @@ public class ModelDataManager {
             return;
 
         ChunkPos chunk = event.getChunk().getPos();
-        modelDataManager.needModelDataRefresh.remove(chunk);
-        modelDataManager.modelDataCache.remove(chunk);
+        for (int y = level.getMinSection(); y < level.getMaxSection(); y++) {
+            long section = SectionPos.asLong(chunk.x, y, chunk.z);
+            modelDataManager.needModelDataRefresh.remove(section);
+            modelDataManager.modelDataCache.remove(section);
+        }
     }
 }
@@ -44,6 +44,7 @@ public abstract class QuadLighter {
     private final float[][] positions = new float[4][3];
     private final byte[][] normals = new byte[4][3];
     private final int[] packedLightmaps = new int[4];
+    private final float[] adjustedPosition = new float[3];
 
     protected QuadLighter(BlockColors colors) {
         this.colors = colors;
@@ -56,7 +57,8 @@ public abstract class QuadLighter {
     protected abstract int calculateLightmap(float[] position, byte[] normal);
 
     public final void setup(BlockAndTintGetter level, BlockPos pos, BlockState state) {
-        var hash = Objects.hash(level, pos, state);
+        // Same as Objects.hash(level, pos, state), without allocating the varargs array
+        var hash = 31 * (31 * (31 + Objects.hashCode(level)) + Objects.hashCode(pos)) + Objects.hashCode(state);
         if (this.level != null && this.currentHash == hash) {
             return; // If we are drawing a block at the same position as before, don't re-compute anything
         }
@@ -105,11 +107,9 @@ public abstract class QuadLighter {
             var normal = normals[i];
             int packedLightmap = packedLightmaps[i];
 
-            var adjustedPosition = new float[] {
-                    position[0] - 0.5f + ((normal[0] / 127f) * 0.5f),
-                    position[1] - 0.5f + ((normal[1] / 127f) * 0.5f),
-                    position[2] - 0.5f + ((normal[2] / 127f) * 0.5f)
-            };
+            adjustedPosition[0] = position[0] - 0.5f + ((normal[0] / 127f) * 0.5f);
+            adjustedPosition[1] = position[1] - 0.5f + ((normal[1] / 127f) * 0.5f);
+            adjustedPosition[2] = position[2] - 0.5f + ((normal[2] / 127f) * 0.5f);
 
             var shade = level.getShade(normals[i][0] / 127f, normals[i][1] / 127f, normals[i][2] / 127f, quad.isShade());
             brightness[i] = calculateBrightness(adjustedPosition) * shade;
@@ -5,10 +5,12 @@
 
 package net.neoforged.neoforge.client.model.lighting;
 
+import java.lang.ref.WeakReference;
 import net.minecraft.client.color.block.BlockColors;
 import net.minecraft.client.renderer.LevelRenderer;
 import net.minecraft.client.renderer.LightTexture;
 import net.minecraft.client.renderer.block.model.BakedQuad;
+import net.minecraft.client.renderer.chunk.RenderChunkRegion;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.util.Mth;
@@ -20,50 +22,80 @@ import net.minecraft.world.phys.shapes.Shapes;
 /**
  * Implementation of {@link QuadLighter} that lights {@link BakedQuad baked quads} using ambient occlusion and
  * light interpolation.
+ * <p>
+ * The 3x3x3 neighborhood of the lit block is stored in flat arrays indexed by {@code x * 9 + y * 3 + z}.
+ * While lighting the blocks of a chunk section being compiled, the properties of each neighbor are cached,
+ * so that adjacent blocks do not query the same positions again.
  */
 public class SmoothQuadLighter extends QuadLighter {
     private static final Direction[] SIDES = Direction.values();
+    private static final int CACHE_SIZE = 1 << 12;
 
     private final BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
-    private final boolean[][][] t = new boolean[3][3][3];
-    private final int[][][] s = new int[3][3][3];
-    private final int[][][] b = new int[3][3][3];
-    private final float[][][][] skyLight = new float[3][2][2][2];
-    private final float[][][][] blockLight = new float[3][2][2][2];
-    private final float[][][] ao = new float[3][3][3];
+    private final BlockState[] states = new BlockState[27];
+    private final boolean[] t = new boolean[27];
+    private final int[] s = new int[27];
+    private final int[] b = new int[27];
+    private final float[] skyLight = new float[3 * 8];
+    private final float[] blockLight = new float[3 * 8];
+    private final float[] ao = new float[27];
+
+    // Neighbor cache, indexed by the section-relative position of each neighbor and only used for chunk sections being compiled
+    private WeakReference<BlockAndTintGetter> cacheLevel = new WeakReference<>(null);
+    private int cacheGeneration = 0;
+    private final int[] cacheStamps = new int[CACHE_SIZE];
+    private final long[] cachePositions = new long[CACHE_SIZE];
+    private final BlockState[] cacheStates = new BlockState[CACHE_SIZE];
+    private final int[] cacheLightColors = new int[CACHE_SIZE];
+    private final float[] cacheShadeBrightness = new float[CACHE_SIZE];
+    private final boolean[] cacheTransparent = new boolean[CACHE_SIZE];
 
     public SmoothQuadLighter(BlockColors colors) {
         super(colors);
     }
 
+    private static int index(int x, int y, int z) {
+        return x * 9 + y * 3 + z;
+    }
+
+    private static int lightIndex(int axis, int x, int y, int z) {
+        return axis * 8 + x * 4 + y * 2 + z;
+    }
+
     @Override
     protected void computeLightingAt(BlockAndTintGetter level, BlockPos origin, BlockState state) {
+        // Chunk regions are immutable snapshots created for a single section compilation, other levels may change between two calls
+        boolean useCache = level instanceof RenderChunkRegion;
+        if (useCache && cacheLevel.get() != level) {
+            cacheLevel = new WeakReference<>(level);
+            cacheGeneration++;
+        }
         for (int x = 0; x <= 2; x++) {
             for (int y = 0; y <= 2; y++) {
                 for (int z = 0; z <= 2; z++) {
                     pos.setWithOffset(origin, x - 1, y - 1, z - 1);
-                    BlockState neighborState = level.getBlockState(pos);
-                    t[x][y][z] = neighborState.getLightBlock(level, pos) < 15;
-                    int brightness = LevelRenderer.getLightColor(level, neighborState, pos);
-                    s[x][y][z] = LightTexture.sky(brightness);
-                    b[x][y][z] = LightTexture.block(brightness);
-                    ao[x][y][z] = neighborState.getShadeBrightness(level, pos);
+                    int i = index(x, y, z);
+                    if (useCache) {
+                        sampleCached(level, i);
+                    } else {
+                        BlockState neighborState = level.getBlockState(pos);
+                        sample(i, neighborState, neighborState.getLightBlock(level, pos) < 15, LevelRenderer.getLightColor(level, neighborState, pos), neighborState.getShadeBrightness(level, pos));
+                    }
                 }
             }
         }
+        int center = index(1, 1, 1);
         for (Direction side : SIDES) {
             pos.setWithOffset(origin, side);
-            BlockState neighborState = level.getBlockState(pos);
+            int i = index(side.getStepX() + 1, side.getStepY() + 1, side.getStepZ() + 1);
+            BlockState neighborState = states[i];
 
             BlockState thisStateShape = state.canOcclude() && state.useShapeForLightOcclusion() ? state : Blocks.AIR.defaultBlockState();
             BlockState otherStateShape = neighborState.canOcclude() && neighborState.useShapeForLightOcclusion() ? neighborState : Blocks.AIR.defaultBlockState();
 
-            if (neighborState.getLightBlock(level, pos) == 15 || Shapes.faceShapeOccludes(thisStateShape.getFaceOcclusionShape(level, origin, side), otherStateShape.getFaceOcclusionShape(level, pos, side.getOpposite()))) {
-                int x = side.getStepX() + 1;
-                int y = side.getStepY() + 1;
-                int z = side.getStepZ() + 1;
-                s[x][y][z] = Math.max(s[1][1][1] - 1, s[x][y][z]);
-                b[x][y][z] = Math.max(b[1][1][1] - 1, b[x][y][z]);
+            if (!t[i] || Shapes.faceShapeOccludes(thisStateShape.getFaceOcclusionShape(level, origin, side), otherStateShape.getFaceOcclusionShape(level, pos, side.getOpposite()))) {
+                s[i] = Math.max(s[center] - 1, s[i]);
+                b[i] = Math.max(b[center] - 1, b[i]);
             }
         }
         for (int x = 0; x < 2; x++) {
@@ -73,37 +105,66 @@ public class SmoothQuadLighter extends QuadLighter {
                     int y1 = y * 2;
                     int z1 = z * 2;
 
-                    int sxyz = s[x1][y1][z1];
-                    int bxyz = b[x1][y1][z1];
-                    boolean txyz = t[x1][y1][z1];
+                    int ixyz = index(x1, y1, z1);
+                    int sxyz = s[ixyz];
+                    int bxyz = b[ixyz];
+                    boolean txyz = t[ixyz];
 
-                    int sxz = s[x1][1][z1], sxy = s[x1][y1][1], syz = s[1][y1][z1];
-                    int bxz = b[x1][1][z1], bxy = b[x1][y1][1], byz = b[1][y1][z1];
-                    boolean txz = t[x1][1][z1], txy = t[x1][y1][1], tyz = t[1][y1][z1];
+                    int ixz = index(x1, 1, z1), ixy = index(x1, y1, 1), iyz = index(1, y1, z1);
+                    int sxz = s[ixz], sxy = s[ixy], syz = s[iyz];
+                    int bxz = b[ixz], bxy = b[ixy], byz = b[iyz];
+                    boolean txz = t[ixz], txy = t[ixy], tyz = t[iyz];
 
-                    int sx = s[x1][1][1], sy = s[1][y1][1], sz = s[1][1][z1];
-                    int bx = b[x1][1][1], by = b[1][y1][1], bz = b[1][1][z1];
-                    boolean tx = t[x1][1][1], ty = t[1][y1][1], tz = t[1][1][z1];
+                    int ix = index(x1, 1, 1), iy = index(1, y1, 1), iz = index(1, 1, z1);
+                    int sx = s[ix], sy = s[iy], sz = s[iz];
+                    int bx = b[ix], by = b[iy], bz = b[iz];
+                    boolean tx = t[ix], ty = t[iy], tz = t[iz];
 
-                    skyLight[0][x][y][z] = combine(sx, sxz, sxy, txz || txy ? sxyz : sx,
+                    skyLight[lightIndex(0, x, y, z)] = combine(sx, sxz, sxy, txz || txy ? sxyz : sx,
                             tx, txz, txy, txz || txy ? txyz : tx);
-                    blockLight[0][x][y][z] = combine(bx, bxz, bxy, txz || txy ? bxyz : bx,
+                    blockLight[lightIndex(0, x, y, z)] = combine(bx, bxz, bxy, txz || txy ? bxyz : bx,
                             tx, txz, txy, txz || txy ? txyz : tx);
 
-                    skyLight[1][x][y][z] = combine(sy, sxy, syz, txy || tyz ? sxyz : sy,
+                    skyLight[lightIndex(1, x, y, z)] = combine(sy, sxy, syz, txy || tyz ? sxyz : sy,
                             ty, txy, tyz, txy || tyz ? txyz : ty);
-                    blockLight[1][x][y][z] = combine(by, bxy, byz, txy || tyz ? bxyz : by,
+                    blockLight[lightIndex(1, x, y, z)] = combine(by, bxy, byz, txy || tyz ? bxyz : by,
                             ty, txy, tyz, txy || tyz ? txyz : ty);
 
-                    skyLight[2][x][y][z] = combine(sz, syz, sxz, tyz || txz ? sxyz : sz,
+                    skyLight[lightIndex(2, x, y, z)] = combine(sz, syz, sxz, tyz || txz ? sxyz : sz,
                             tz, tyz, txz, tyz || txz ? txyz : tz);
-                    blockLight[2][x][y][z] = combine(bz, byz, bxz, tyz || txz ? bxyz : bz,
+                    blockLight[lightIndex(2, x, y, z)] = combine(bz, byz, bxz, tyz || txz ? bxyz : bz,
                             tz, tyz, txz, tyz || txz ? txyz : tz);
                 }
             }
         }
     }
 
+    /**
+     * Samples the neighbor at {@link #pos}, looking it up in the neighbor cache first.
+     */
+    private void sampleCached(BlockAndTintGetter level, int i) {
+        int slot = ((pos.getX() & 15) << 8) | ((pos.getY() & 15) << 4) | (pos.getZ() & 15);
+        long key = pos.asLong();
+        if (cacheStamps[slot] != cacheGeneration || cachePositions[slot] != key) {
+            BlockState neighborState = level.getBlockState(pos);
+            cacheStamps[slot] = cacheGeneration;
+            cachePositions[slot] = key;
+            cacheStates[slot] = neighborState;
+            cacheTransparent[slot] = neighborState.getLightBlock(level, pos) < 15;
+            cacheLightColors[slot] = LevelRenderer.getLightColor(level, neighborState, pos);
+            cacheShadeBrightness[slot] = neighborState.getShadeBrightness(level, pos);
+        }
+        sample(i, cacheStates[slot], cacheTransparent[slot], cacheLightColors[slot], cacheShadeBrightness[slot]);
+    }
+
+    private void sample(int i, BlockState neighborState, boolean transparent, int brightness, float shadeBrightness) {
+        states[i] = neighborState;
+        t[i] = transparent;
+        s[i] = LightTexture.sky(brightness);
+        b[i] = LightTexture.block(brightness);
+        ao[i] = shadeBrightness;
+    }
+
     @Override
     protected float calculateBrightness(float[] position) {
         float x = position[0], y = position[1], z = position[2];
@@ -116,14 +177,14 @@ public class SmoothQuadLighter extends QuadLighter {
         if (z < 0) z++;
 
         float a = 0;
-        a += ao[sx - 1][sy - 1][sz - 1] * (1 - x) * (1 - y) * (1 - z);
-        a += ao[sx - 1][sy - 1][sz - 0] * (1 - x) * (1 - y) * (0 + z);
-        a += ao[sx - 1][sy - 0][sz - 1] * (1 - x) * (0 + y) * (1 - z);
-        a += ao[sx - 1][sy - 0][sz - 0] * (1 - x) * (0 + y) * (0 + z);
-        a += ao[sx - 0][sy - 1][sz - 1] * (0 + x) * (1 - y) * (1 - z);
-        a += ao[sx - 0][sy - 1][sz - 0] * (0 + x) * (1 - y) * (0 + z);
-        a += ao[sx - 0][sy - 0][sz - 1] * (0 + x) * (0 + y) * (1 - z);
-        a += ao[sx - 0][sy - 0][sz - 0] * (0 + x) * (0 + y) * (0 + z);
+        a += ao[index(sx - 1, sy - 1, sz - 1)] * (1 - x) * (1 - y) * (1 - z);
+        a += ao[index(sx - 1, sy - 1, sz - 0)] * (1 - x) * (1 - y) * (0 + z);
+        a += ao[index(sx - 1, sy - 0, sz - 1)] * (1 - x) * (0 + y) * (1 - z);
+        a += ao[index(sx - 1, sy - 0, sz - 0)] * (1 - x) * (0 + y) * (0 + z);
+        a += ao[index(sx - 0, sy - 1, sz - 1)] * (0 + x) * (1 - y) * (1 - z);
+        a += ao[index(sx - 0, sy - 1, sz - 0)] * (0 + x) * (1 - y) * (0 + z);
+        a += ao[index(sx - 0, sy - 0, sz - 1)] * (0 + x) * (0 + y) * (1 - z);
+        a += ao[index(sx - 0, sy - 0, sz - 0)] * (0 + x) * (0 + y) * (0 + z);
 
         a = Mth.clamp(a, 0, 1);
         return a;
@@ -144,7 +205,29 @@ public class SmoothQuadLighter extends QuadLighter {
         return (c + s1 + s2 + s3) / (0xF * 4f);
     }
 
+    /**
+     * @deprecated Use {@link #calcLightmap(float[], float, float, float)} with the light values flattened.
+     *             Overriding this method no longer has any effect.
+     */
+    @Deprecated(forRemoval = true, since = "1.20.2")
     protected float calcLightmap(float[][][][] light, float x, float y, float z) {
+        float[] flatLight = new float[3 * 8];
+        for (int axis = 0; axis < 3; axis++) {
+            for (int lx = 0; lx < 2; lx++) {
+                for (int ly = 0; ly < 2; ly++) {
+                    for (int lz = 0; lz < 2; lz++) {
+                        flatLight[lightIndex(axis, lx, ly, lz)] = light[axis][lx][ly][lz];
+                    }
+                }
+            }
+        }
+        return calcLightmap(flatLight, x, y, z);
+    }
+
+    /**
+     * @param light the light values at the corners of the block, indexed by {@code axis * 8 + x * 4 + y * 2 + z}
+     */
+    protected float calcLightmap(float[] light, float x, float y, float z) {
         x *= 2;
         y *= 2;
         z *= 2;
@@ -205,15 +288,15 @@ public class SmoothQuadLighter extends QuadLighter {
 
                     float bx = (2 * vx + vy + vz + 6) / (s3 * sy * sz * (vx + 2));
                     s += bx;
-                    l += bx * light[0][ix][iy][iz];
+                    l += bx * light[lightIndex(0, ix, iy, iz)];
 
                     float by = (2 * vy + vz + vx + 6) / (s3 * sz * sx * (vy + 2));
                     s += by;
-                    l += by * light[1][ix][iy][iz];
+                    l += by * light[lightIndex(1, ix, iy, iz)];
 
                     float bz = (2 * vz + vx + vy + 6) / (s3 * sx * sy * (vz + 2));
                     s += bz;
-                    l += bz * light[2][ix][iy][iz];
+                    l += bz * light[lightIndex(2, ix, iy, iz)];
                 }
             }
         }
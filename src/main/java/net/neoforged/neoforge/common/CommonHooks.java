@@ -130,7 +130,6 @@ import net.minecraft.world.phys.Vec3;
 import net.neoforged.fml.ModList;
 import net.neoforged.fml.ModLoader;
 import net.neoforged.neoforge.common.extensions.IEntityExtension;
-import net.neoforged.neoforge.common.loot.IGlobalLootModifier;
 import net.neoforged.neoforge.common.loot.LootModifierManager;
 import net.neoforged.neoforge.common.loot.LootTableIdCondition;
 import net.neoforged.neoforge.common.util.BlockSnapshot;
@@ -139,6 +138,7 @@ import net.neoforged.neoforge.common.util.MavenVersionStringHelper;
 import net.neoforged.neoforge.event.AnvilUpdateEvent;
 import net.neoforged.neoforge.event.DifficultyChangeEvent;
 import net.neoforged.neoforge.event.EventHooks;
+import net.neoforged.neoforge.event.EventListenerCache;
 import net.neoforged.neoforge.event.GrindstoneEvent;
 import net.neoforged.neoforge.event.ItemAttributeModifierEvent;
 import net.neoforged.neoforge.event.ItemStackedOnOtherEvent;
@@ -345,6 +345,8 @@ public class CommonHooks {
     }
 
     public static boolean onVanillaGameEvent(Level level, GameEvent vanillaEvent, Vec3 pos, GameEvent.Context context) {
+        if (!EventListenerCache.hasListeners(VanillaGameEvent.class))
+            return true;
         return !NeoForge.EVENT_BUS.post(new VanillaGameEvent(level, vanillaEvent, pos, context)).isCanceled();
     }
 
@@ -547,11 +549,9 @@ public class CommonHooks {
             if (eventResult) {
                 ret = InteractionResult.FAIL; // cancel placement
                 // revert back all captured blocks
-                for (BlockSnapshot blocksnapshot : Lists.reverse(blockSnapshots)) {
-                    level.restoringBlockSnapshots = true;
-                    blocksnapshot.restore(true, false);
-                    level.restoringBlockSnapshots = false;
-                }
+                level.restoringBlockSnapshots = true;
+                BlockSnapshot.restoreAll(blockSnapshots, true, false);
+                level.restoringBlockSnapshots = false;
             } else {
                 // Change the stack to its new content
                 itemstack.setCount(newSize);
@@ -1035,10 +1035,7 @@ public class CommonHooks {
     public static ObjectArrayList<ItemStack> modifyLoot(ResourceLocation lootTableId, ObjectArrayList<ItemStack> generatedLoot, LootContext context) {
         context.setQueriedLootTableId(lootTableId); // In case the ID was set via copy constructor, this will be ignored: intended
         LootModifierManager man = NeoForgeEventHandler.getLootModifierManager();
-        for (IGlobalLootModifier mod : man.getAllLootMods()) {
-            generatedLoot = mod.apply(generatedLoot, context);
-        }
-        return generatedLoot;
+        return man.modifyLoot(context.getQueriedLootTableId(), generatedLoot, context);
     }
 
     public static List<String> getModPacks() {
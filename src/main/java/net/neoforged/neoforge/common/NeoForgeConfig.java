@@ -32,6 +32,10 @@ public class NeoForgeConfig {
 
         public final BooleanValue advertiseDedicatedServerToLan;
 
+        public final BooleanValue continuousTimeTracking;
+
+        public final BooleanValue parallelLevelTicking;
+
         Server(ModConfigSpec.Builder builder) {
             builder.comment("Server configuration settings")
                     .push("server");
@@ -76,6 +80,17 @@ public class NeoForgeConfig {
                     .translation("neoforge.configgui.advertiseDedicatedServerToLan")
                     .define("advertiseDedicatedServerToLan", true);
 
+            continuousTimeTracking = builder
+                    .comment("Set this to true to continuously record block entity and entity update times, aggregated by type and by chunk. The data can be viewed with /neoforge track and exported with /neoforge track dump.")
+                    .translation("neoforge.configgui.continuousTimeTracking")
+                    .worldRestart()
+                    .define("continuousTimeTracking", false);
+
+            parallelLevelTicking = builder
+                    .comment("EXPERIMENTAL: Set this to true to tick the dimensions in parallel. The dimensions tick on worker threads, so events fired during a dimension tick are fired off the server thread. Mods that access other dimensions or global state from within a dimension tick can break, and dimensions that load chunks of each other during their tick can hang the server. Dimensions are ticked one after another while the profiler is running, while the scoreboard has objectives, and if command blocks are enabled.")
+                    .translation("neoforge.configgui.parallelLevelTicking")
+                    .define("parallelLevelTicking", false);
+
             builder.pop();
         }
     }
@@ -7,6 +7,7 @@ package net.neoforged.neoforge.common;
 
 import net.minecraft.server.TickTask;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.Mob;
 import net.minecraft.world.entity.item.ItemEntity;
@@ -22,12 +23,16 @@ import net.neoforged.neoforge.event.AddReloadListenerEvent;
 import net.neoforged.neoforge.event.RegisterCommandsEvent;
 import net.neoforged.neoforge.event.TagsUpdatedEvent;
 import net.neoforged.neoforge.event.TickEvent;
+import net.neoforged.neoforge.event.entity.EntityEvent;
 import net.neoforged.neoforge.event.entity.EntityJoinLevelEvent;
+import net.neoforged.neoforge.event.entity.EntityLeaveLevelEvent;
 import net.neoforged.neoforge.event.entity.player.PlayerEvent;
 import net.neoforged.neoforge.event.level.ChunkEvent;
 import net.neoforged.neoforge.event.level.LevelEvent;
+import net.neoforged.neoforge.network.PlayerSpatialIndex;
 import net.neoforged.neoforge.server.command.ConfigCommand;
 import net.neoforged.neoforge.server.command.NeoForgeCommand;
+import net.neoforged.neoforge.server.timings.TimeTracker;
 import org.jetbrains.annotations.ApiStatus;
 
 @ApiStatus.Internal
@@ -50,6 +55,24 @@ public class NeoForgeEventHandler {
         }
     }
 
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public void onPlayerJoinLevel(EntityJoinLevelEvent event) {
+        if (event.getEntity() instanceof ServerPlayer && event.getLevel() instanceof ServerLevel level)
+            PlayerSpatialIndex.invalidate(level);
+    }
+
+    @SubscribeEvent
+    public void onPlayerLeaveLevel(EntityLeaveLevelEvent event) {
+        if (event.getEntity() instanceof ServerPlayer && event.getLevel() instanceof ServerLevel level)
+            PlayerSpatialIndex.invalidate(level);
+    }
+
+    @SubscribeEvent
+    public void onPlayerEnterSection(EntityEvent.EnteringSection event) {
+        if (event.getEntity() instanceof ServerPlayer player)
+            PlayerSpatialIndex.invalidate(player.serverLevel());
+    }
+
     @SubscribeEvent(priority = EventPriority.HIGHEST)
     public void onDimensionUnload(LevelEvent.Unload event) {
         if (event.getLevel() instanceof ServerLevel)
@@ -71,6 +94,11 @@ public class NeoForgeEventHandler {
     public void onChunkUnload(ChunkEvent.Unload event) {
         if (!event.getLevel().isClientSide())
             FarmlandWaterManager.removeTickets(event.getChunk());
+        if (event.getLevel() instanceof ServerLevel level) {
+            long chunk = event.getChunk().getPos().toLong();
+            TimeTracker.BLOCK_ENTITY_UPDATE.getContinuousTimings().removeChunk(level.dimension(), chunk);
+            TimeTracker.ENTITY_UPDATE.getContinuousTimings().removeChunk(level.dimension(), chunk);
+        }
     }
 
     /*
@@ -108,7 +136,7 @@ public class NeoForgeEventHandler {
         event.addListener(INSTANCE);
     }
 
-    static LootModifierManager getLootModifierManager() {
+    public static LootModifierManager getLootModifierManager() {
         if (INSTANCE == null)
             throw new IllegalStateException("Can not retrieve LootModifierManager until resources have loaded once.");
         return INSTANCE;
@@ -6,9 +6,13 @@
 package net.neoforged.neoforge.common.capabilities;
 
 import com.google.common.collect.Lists;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import javax.annotation.ParametersAreNonnullByDefault;
 import net.minecraft.MethodsReturnNonnullByDefault;
 import net.minecraft.core.Direction;
@@ -17,6 +21,7 @@ import net.minecraft.nbt.Tag;
 import net.minecraft.resources.ResourceLocation;
 import net.neoforged.neoforge.common.util.INBTSerializable;
 import net.neoforged.neoforge.common.util.LazyOptional;
+import org.apache.commons.lang3.ArrayUtils;
 import org.jetbrains.annotations.Nullable;
 
 /**
@@ -28,6 +33,12 @@ import org.jetbrains.annotations.Nullable;
  *
  * Internally the handlers are baked into arrays for fast iteration.
  * The ResourceLocations will be used for the NBT Key when serializing.
+ *
+ * Present results of {@link #getCapability} are cached per capability and side when they
+ * come from a {@link IStableCapabilityProvider stable provider} and every provider before it is stable,
+ * since only those promise to {@link LazyOptional#invalidate() invalidate} the returned {@link LazyOptional}
+ * when it should no longer be used, and not to start exposing a capability that was missing.
+ * The cache is cleared when the dispatcher is {@link #invalidate() invalidated}.
  */
 @ParametersAreNonnullByDefault
 @MethodsReturnNonnullByDefault
@@ -36,6 +47,11 @@ public final class CapabilityDispatcher implements INBTSerializable<CompoundTag>
     private INBTSerializable<Tag>[] writers;
     private String[] names;
     private final List<Runnable> listeners;
+    // The number of leading providers that are stable, only the results of those can be cached
+    private final int stableCaps;
+    private volatile CacheEntry[] cache = EMPTY_CACHE;
+    // The cached optionals that this dispatcher listens to, so that recaching them does not add more listeners
+    private final Set<LazyOptional<?>> listenedOptionals = Collections.newSetFromMap(new IdentityHashMap<>());
 
     public CapabilityDispatcher(Map<ResourceLocation, ICapabilityProvider> list, List<Runnable> listeners) {
         this(list, listeners, null);
@@ -69,11 +85,23 @@ public final class CapabilityDispatcher implements INBTSerializable<CompoundTag>
         caps = lstCaps.toArray(new ICapabilityProvider[lstCaps.size()]);
         writers = lstWriters.toArray(new INBTSerializable[lstWriters.size()]);
         names = lstNames.toArray(new String[lstNames.size()]);
+
+        int stable = 0;
+        while (stable < caps.length && caps[stable] instanceof IStableCapabilityProvider)
+            stable++;
+        stableCaps = stable;
     }
 
     @Override
     public <T> LazyOptional<T> getCapability(Capability<T> cap, @Nullable Direction side) {
-        for (ICapabilityProvider c : caps) {
+        for (CacheEntry entry : cache) {
+            if (entry.cap == cap && entry.side == side) {
+                return entry.optional.cast();
+            }
+        }
+
+        for (int i = 0; i < caps.length; i++) {
+            ICapabilityProvider c = caps[i];
             LazyOptional<T> ret = c.getCapability(cap, side);
             //noinspection ConstantConditions
             if (ret == null) {
@@ -84,6 +112,9 @@ public final class CapabilityDispatcher implements INBTSerializable<CompoundTag>
                                 c.getClass().getTypeName()));
             }
             if (ret.isPresent()) {
+                if (i < stableCaps) {
+                    cache(new CacheEntry(cap, side, ret));
+                }
                 return ret;
             }
         }
@@ -116,6 +147,45 @@ public final class CapabilityDispatcher implements INBTSerializable<CompoundTag>
     }
 
     public void invalidate() {
+        synchronized (this) {
+            this.cache = EMPTY_CACHE;
+        }
         this.listeners.forEach(Runnable::run);
     }
+
+    private void cache(CacheEntry entry) {
+        synchronized (this) {
+            CacheEntry[] current = this.cache;
+            for (CacheEntry existing : current) {
+                if (existing.cap == entry.cap && existing.side == entry.side) {
+                    return;
+                }
+            }
+            CacheEntry[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = entry;
+            this.cache = updated;
+            if (!this.listenedOptionals.add(entry.optional)) {
+                return;
+            }
+        }
+        // Registered outside the lock: an already invalid optional calls the listener immediately
+        entry.optional.addListener(this::uncache);
+    }
+
+    private void uncache(LazyOptional<?> optional) {
+        synchronized (this) {
+            this.listenedOptionals.remove(optional);
+            CacheEntry[] current = this.cache;
+            for (int index = current.length - 1; index >= 0; index--) {
+                if (current[index].optional == optional) {
+                    current = ArrayUtils.remove(current, index);
+                }
+            }
+            this.cache = current;
+        }
+    }
+
+    private static final CacheEntry[] EMPTY_CACHE = new CacheEntry[0];
+
+    private record CacheEntry(Capability<?> cap, @Nullable Direction side, LazyOptional<?> optional) {}
 }
@@ -0,0 +1,20 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.neoforge.common.capabilities;
+
+import net.neoforged.neoforge.common.util.LazyOptional;
+
+/**
+ * A capability provider whose capabilities only change in ways it signals, which allows {@link CapabilityDispatcher} to cache them.
+ * <p>
+ * Implementations promise that for a given capability and side:
+ * <ul>
+ * <li>a present {@link LazyOptional} is returned again on every call until it is {@linkplain LazyOptional#invalidate() invalidated},</li>
+ * <li>and a capability that is not exposed is never exposed later.</li>
+ * </ul>
+ * Subclasses that override {@link #getCapability} must keep these guarantees.
+ */
+public interface IStableCapabilityProvider extends ICapabilityProvider {}
@@ -30,6 +30,9 @@ public class CompoundIngredient extends Ingredient {
     private final List<Ingredient> children;
     private final boolean isSimple;
     private final boolean synchronizeWithContents;
+    private final IngredientMatcher.Cache matcher = new IngredientMatcher.Cache(this);
+    @Nullable
+    private volatile StackingIds stackingIds;
 
     protected CompoundIngredient(List<Ingredient> children) {
         super(children.stream().map(Value::new), NeoForgeMod.COMPOUND_INGREDIENT_TYPE::get);
@@ -58,6 +61,12 @@ public class CompoundIngredient extends Ingredient {
 
     @Override
     public boolean test(@Nullable ItemStack p_43914_) {
+        if (p_43914_ != null && !p_43914_.isEmpty()) {
+            IngredientMatcher compiled = matcher.get();
+            if (compiled != null)
+                return compiled.test(p_43914_);
+        }
+
         if (synchronizeWithContents())
             return super.test(p_43914_);
 
@@ -69,10 +78,17 @@ public class CompoundIngredient extends Ingredient {
         if (synchronizeWithContents())
             return super.getStackingIds();
 
-        final var list = new IntArrayList();
-        children.stream().map(Ingredient::getStackingIds).forEach(list::addAll);
-        list.sort(IntComparators.NATURAL_COMPARATOR);
-        return list;
+        StackingIds stackingIds = this.stackingIds;
+        int generation = IngredientMatcher.generation();
+        if (stackingIds == null || stackingIds.generation() != generation) {
+            final var list = new IntArrayList();
+            for (Ingredient child : children)
+                list.addAll(child.getStackingIds());
+            list.sort(IntComparators.NATURAL_COMPARATOR);
+            stackingIds = new StackingIds(list, generation);
+            this.stackingIds = stackingIds;
+        }
+        return stackingIds.ids();
     }
 
     @Override
@@ -90,6 +106,8 @@ public class CompoundIngredient extends Ingredient {
         return this.children;
     }
 
+    private record StackingIds(IntList ids, int generation) {}
+
     private record Value(Ingredient inner) implements Ingredient.Value {
         @Override
         public Collection<ItemStack> getItems() {
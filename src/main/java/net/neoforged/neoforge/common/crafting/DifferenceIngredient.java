@@ -36,6 +36,7 @@ public class DifferenceIngredient extends Ingredient {
 
     private final Ingredient base;
     private final Ingredient subtracted;
+    private final IngredientMatcher.Cache matcher = new IngredientMatcher.Cache(this);
 
     protected DifferenceIngredient(Ingredient base, Ingredient subtracted) {
         super(Arrays.stream(base.getValues()).map(value -> new SubtractingValue(value, subtracted)), NeoForgeMod.DIFFERENCE_INGREDIENT_TYPE::get);
@@ -71,6 +72,12 @@ public class DifferenceIngredient extends Ingredient {
 
     @Override
     public boolean test(@Nullable ItemStack p_43914_) {
+        if (p_43914_ != null && !p_43914_.isEmpty()) {
+            IngredientMatcher compiled = matcher.get();
+            if (compiled != null)
+                return compiled.test(p_43914_);
+        }
+
         if (synchronizeWithContents())
             return super.test(p_43914_);
 
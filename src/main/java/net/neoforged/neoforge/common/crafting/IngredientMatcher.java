@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.neoforge.common.crafting;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Predicate;
+import net.minecraft.advancements.critereon.NbtPredicate;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.Ingredient;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Compiled form of the matching logic of an ingredient, used by the NeoForge ingredient types to test stacks with a single lookup
+ * instead of going through their children.
+ * <p>
+ * A matcher holds the ids of the items that match regardless of their NBT in a bit set, and a predicate for each item whose match depends on its NBT.
+ * Only ingredients whose matching logic is known can be compiled: vanilla ingredients, which only compare items, and the NeoForge ingredient types.
+ * Matchers do not handle empty stacks, which must be tested by the ingredient itself.
+ * <p>
+ * Matchers depend on the numeric ids of the items, so they are compiled again after the ids changed.
+ */
+@ApiStatus.Internal
+public final class IngredientMatcher {
+    private static volatile int generation;
+
+    private final BitSet items;
+    private final Int2ObjectMap<Predicate<ItemStack>> conditionalItems;
+
+    private IngredientMatcher(BitSet items, Int2ObjectMap<Predicate<ItemStack>> conditionalItems) {
+        this.items = items;
+        this.conditionalItems = conditionalItems;
+    }
+
+    /**
+     * Discards all compiled matchers, called when the numeric ids of the items changed.
+     */
+    public static void invalidateAll() {
+        generation++;
+    }
+
+    static int generation() {
+        return generation;
+    }
+
+    /**
+     * {@return {@code true} if the given non-empty stack matches}
+     */
+    boolean test(ItemStack stack) {
+        int id = BuiltInRegistries.ITEM.getId(stack.getItem());
+        if (this.items.get(id))
+            return true;
+        Predicate<ItemStack> condition = this.conditionalItems.get(id);
+        return condition != null && condition.test(stack);
+    }
+
+    /**
+     * Compiles the given ingredient.
+     *
+     * @return the matcher, or {@code null} if the matching logic of the ingredient or of one of its children is not known
+     */
+    @Nullable
+    static IngredientMatcher compile(Ingredient ingredient) {
+        Class<?> type = ingredient.getClass();
+        if (type == Ingredient.class)
+            return ofItems(ingredient.getItems());
+        if (type == PartialNBTIngredient.class) {
+            Int2ObjectMap<Predicate<ItemStack>> conditionalItems = new Int2ObjectOpenHashMap<>();
+            for (ItemStack stack : ingredient.getItems()) {
+                NbtPredicate predicate = new NbtPredicate(stack.getOrCreateTag());
+                addCondition(conditionalItems, BuiltInRegistries.ITEM.getId(stack.getItem()), predicate::matches);
+            }
+            return new IngredientMatcher(new BitSet(), conditionalItems);
+        }
+        if (type == StrictNBTIngredient.class) {
+            StrictNBTIngredient strict = (StrictNBTIngredient) ingredient;
+            Int2ObjectMap<Predicate<ItemStack>> conditionalItems = new Int2ObjectOpenHashMap<>();
+            for (ItemStack stack : ingredient.getItems()) {
+                addCondition(conditionalItems, BuiltInRegistries.ITEM.getId(stack.getItem()), tested -> strict.areStacksEqual(stack, tested));
+            }
+            return new IngredientMatcher(new BitSet(), conditionalItems);
+        }
+        if (type != CompoundIngredient.class && type != IntersectionIngredient.class && type != DifferenceIngredient.class)
+            return null;
+        // These ingredients test their items, compared by item only, when they synchronize their contents
+        if (ingredient.synchronizeWithContents())
+            return ofItems(ingredient.getItems());
+
+        if (ingredient instanceof CompoundIngredient compound) {
+            IngredientMatcher result = new IngredientMatcher(new BitSet(), new Int2ObjectOpenHashMap<>());
+            for (Ingredient child : compound.getChildren()) {
+                IngredientMatcher matcher = compile(child);
+                if (matcher == null)
+                    return null;
+                result = union(result, matcher);
+            }
+            return result;
+        } else if (ingredient instanceof IntersectionIngredient intersection) {
+            List<Ingredient> children = intersection.getChildren();
+            if (children.isEmpty())
+                return null;
+            IngredientMatcher result = null;
+            for (Ingredient child : children) {
+                IngredientMatcher matcher = compile(child);
+                if (matcher == null)
+                    return null;
+                result = result == null ? matcher : intersection(result, matcher);
+            }
+            return result;
+        } else {
+            DifferenceIngredient difference = (DifferenceIngredient) ingredient;
+            IngredientMatcher base = compile(difference.getBase());
+            IngredientMatcher subtracted = compile(difference.getSubtracted());
+            return base == null || subtracted == null ? null : difference(base, subtracted);
+        }
+    }
+
+    private static IngredientMatcher ofItems(ItemStack[] stacks) {
+        BitSet items = new BitSet();
+        for (ItemStack stack : stacks) {
+            if (!stack.isEmpty())
+                items.set(BuiltInRegistries.ITEM.getId(stack.getItem()));
+        }
+        return new IngredientMatcher(items, new Int2ObjectOpenHashMap<>());
+    }
+
+    private static void addCondition(Int2ObjectMap<Predicate<ItemStack>> conditionalItems, int id, Predicate<ItemStack> condition) {
+        Predicate<ItemStack> previous = conditionalItems.get(id);
+        conditionalItems.put(id, previous == null ? condition : previous.or(condition));
+    }
+
+    private static IngredientMatcher union(IngredientMatcher a, IngredientMatcher b) {
+        BitSet items = (BitSet) a.items.clone();
+        items.or(b.items);
+        Int2ObjectMap<Predicate<ItemStack>> conditionalItems = new Int2ObjectOpenHashMap<>();
+        for (IngredientMatcher matcher : List.of(a, b)) {
+            for (Int2ObjectMap.Entry<Predicate<ItemStack>> entry : matcher.conditionalItems.int2ObjectEntrySet()) {
+                if (!items.get(entry.getIntKey()))
+                    addCondition(conditionalItems, entry.getIntKey(), entry.getValue());
+            }
+        }
+        return new IngredientMatcher(items, conditionalItems);
+    }
+
+    private static IngredientMatcher intersection(IngredientMatcher a, IngredientMatcher b) {
+        BitSet items = (BitSet) a.items.clone();
+        items.and(b.items);
+        Int2ObjectMap<Predicate<ItemStack>> conditionalItems = new Int2ObjectOpenHashMap<>();
+        for (Int2ObjectMap.Entry<Predicate<ItemStack>> entry : a.conditionalItems.int2ObjectEntrySet()) {
+            int id = entry.getIntKey();
+            Predicate<ItemStack> other = b.conditionalItems.get(id);
+            if (b.items.get(id))
+                conditionalItems.put(id, entry.getValue());
+            else if (other != null)
+                conditionalItems.put(id, entry.getValue().and(other));
+        }
+        for (Int2ObjectMap.Entry<Predicate<ItemStack>> entry : b.conditionalItems.int2ObjectEntrySet()) {
+            if (a.items.get(entry.getIntKey()))
+                conditionalItems.put(entry.getIntKey(), entry.getValue());
+        }
+        return new IngredientMatcher(items, conditionalItems);
+    }
+
+    private static IngredientMatcher difference(IngredientMatcher base, IngredientMatcher subtracted) {
+        BitSet items = (BitSet) base.items.clone();
+        items.andNot(subtracted.items);
+        Int2ObjectMap<Predicate<ItemStack>> conditionalItems = new Int2ObjectOpenHashMap<>();
+        for (Int2ObjectMap.Entry<Predicate<ItemStack>> entry : subtracted.conditionalItems.int2ObjectEntrySet()) {
+            int id = entry.getIntKey();
+            if (items.get(id)) {
+                items.clear(id);
+                conditionalItems.put(id, entry.getValue().negate());
+            }
+        }
+        for (Int2ObjectMap.Entry<Predicate<ItemStack>> entry : base.conditionalItems.int2ObjectEntrySet()) {
+            int id = entry.getIntKey();
+            Predicate<ItemStack> other = subtracted.conditionalItems.get(id);
+            if (subtracted.items.get(id))
+                continue;
+            conditionalItems.put(id, other == null ? entry.getValue() : entry.getValue().and(other.negate()));
+        }
+        return new IngredientMatcher(items, conditionalItems);
+    }
+
+    /**
+     * Lazily compiled matcher of an ingredient, compiled again after the item ids changed.
+     */
+    static final class Cache {
+        private static final IngredientMatcher NOT_COMPILABLE = new IngredientMatcher(new BitSet(), new Int2ObjectOpenHashMap<>());
+
+        private final Ingredient ingredient;
+        @Nullable
+        private volatile Compiled compiled;
+
+        Cache(Ingredient ingredient) {
+            this.ingredient = ingredient;
+        }
+
+        /**
+         * {@return the matcher of the ingredient, or {@code null} if it cannot be compiled}
+         */
+        @Nullable
+        IngredientMatcher get() {
+            Compiled compiled = this.compiled;
+            int generation = IngredientMatcher.generation;
+            if (compiled == null || compiled.generation() != generation) {
+                IngredientMatcher matcher = compile(this.ingredient);
+                compiled = new Compiled(matcher == null ? NOT_COMPILABLE : matcher, generation);
+                this.compiled = compiled;
+            }
+            return compiled.matcher() == NOT_COMPILABLE ? null : compiled.matcher();
+        }
+
+        private record Compiled(IngredientMatcher matcher, int generation) {}
+    }
+}
@@ -29,6 +29,7 @@ public class IntersectionIngredient extends Ingredient {
                     .apply(builder, IntersectionIngredient::new));
 
     private final List<Ingredient> children;
+    private final IngredientMatcher.Cache matcher = new IngredientMatcher.Cache(this);
 
     protected IntersectionIngredient(List<Ingredient> children) {
         super(children.stream().flatMap(ingredient -> Arrays.stream(ingredient.getValues()).map(value -> {
@@ -76,6 +77,12 @@ public class IntersectionIngredient extends Ingredient {
 
     @Override
     public boolean test(@Nullable ItemStack p_43914_) {
+        if (p_43914_ != null && !p_43914_.isEmpty()) {
+            IngredientMatcher compiled = matcher.get();
+            if (compiled != null)
+                return compiled.test(p_43914_);
+        }
+
         if (synchronizeWithContents())
             return super.test(p_43914_);
 
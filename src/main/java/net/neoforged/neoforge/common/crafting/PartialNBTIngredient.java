@@ -19,6 +19,7 @@ import net.minecraft.world.level.ItemLike;
 import net.neoforged.neoforge.common.NeoForgeMod;
 import net.neoforged.neoforge.common.util.NeoForgeExtraCodecs;
 import net.neoforged.neoforge.registries.ForgeRegistries;
+import org.jetbrains.annotations.Nullable;
 
 /** Ingredient that matches the given items, performing a partial NBT match. Use {@link StrictNBTIngredient} if you want exact match on NBT */
 public class PartialNBTIngredient extends Ingredient {
@@ -37,6 +38,8 @@ public class PartialNBTIngredient extends Ingredient {
                             CompoundTag.CODEC.fieldOf("tag").forGetter(PartialNBTIngredient::getTag))
                     .apply(builder, PartialNBTIngredient::new));
 
+    private final IngredientMatcher.Cache matcher = new IngredientMatcher.Cache(this);
+
     protected PartialNBTIngredient(Set<Item> items, CompoundTag tag) {
         super(items.stream().map(item -> {
             ItemStack stack = new ItemStack(item, 1);
@@ -49,6 +52,17 @@ public class PartialNBTIngredient extends Ingredient {
             throw new IllegalStateException("At least one item needs to be provided for a partial nbt matching ingredient.");
     }
 
+    @Override
+    public boolean test(@Nullable ItemStack p_43914_) {
+        if (p_43914_ != null && !p_43914_.isEmpty()) {
+            IngredientMatcher compiled = matcher.get();
+            if (compiled != null)
+                return compiled.test(p_43914_);
+        }
+
+        return super.test(p_43914_);
+    }
+
     @Override
     protected boolean areStacksEqual(ItemStack left, ItemStack right) {
         return compareStacksUsingPredicate(left, right);
@@ -60,8 +74,7 @@ public class PartialNBTIngredient extends Ingredient {
     }
 
     private static boolean compareStacksUsingPredicate(ItemStack left, ItemStack right) {
-        NbtPredicate predicate = new NbtPredicate(left.getOrCreateTag());
-        return left.getItem() == right.getItem() && predicate.matches(right);
+        return left.getItem() == right.getItem() && new NbtPredicate(left.getOrCreateTag()).matches(right);
     }
 
     /** Creates a new ingredient matching any item from the list, containing the given NBT */
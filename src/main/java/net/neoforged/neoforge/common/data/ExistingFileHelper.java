@@ -6,14 +6,18 @@
 package net.neoforged.neoforge.common.data;
 
 import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.Multimap;
+import com.google.common.collect.Multimaps;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import net.minecraft.client.resources.ClientPackSource;
 import net.minecraft.client.resources.IndexedAssetSource;
 import net.minecraft.data.DataProvider;
@@ -32,6 +36,7 @@ import net.neoforged.neoforge.client.model.generators.ModelBuilder;
 import net.neoforged.neoforge.data.event.GatherDataEvent;
 import net.neoforged.neoforge.resource.ResourcePackLoader;
 import net.neoforged.neoforgespi.language.IModFileInfo;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.VisibleForTesting;
 
@@ -82,7 +87,10 @@ public class ExistingFileHelper {
 
     private final MultiPackResourceManager clientResources, serverData;
     private final boolean enable;
-    private final Multimap<PackType, ResourceLocation> generated = HashMultimap.create();
+    private final Map<String, Map<ResourceLocation, Resource>> clientIndices = new ConcurrentHashMap<>();
+    private final Map<String, Map<ResourceLocation, Resource>> serverIndices = new ConcurrentHashMap<>();
+    // Data providers may run concurrently
+    private final Multimap<PackType, ResourceLocation> generated = Multimaps.synchronizedSetMultimap(HashMultimap.create());
 
     /**
      * Create a new helper. This should probably <em>NOT</em> be used by mods, as
@@ -133,6 +141,24 @@ public class ExistingFileHelper {
         return packType == PackType.CLIENT_RESOURCES ? clientResources : serverData;
     }
 
+    /**
+     * Gets the index of the resources whose path starts with the same directory as the given location, e.g. {@code textures}.
+     * The index is built on first use by listing that directory in all packs once, so that lookups no longer probe the packs.
+     *
+     * @return the index, or {@code null} if the location cannot be looked up in an index
+     */
+    @Nullable
+    private Map<ResourceLocation, Resource> getIndex(ResourceLocation loc, PackType packType) {
+        String path = loc.getPath();
+        int slash = path.indexOf('/');
+        // Metadata files are not listed as resources
+        if (slash <= 0 || path.endsWith(PackResources.METADATA_EXTENSION))
+            return null;
+        String directory = path.substring(0, slash);
+        Map<String, Map<ResourceLocation, Resource>> indices = packType == PackType.CLIENT_RESOURCES ? clientIndices : serverIndices;
+        return indices.computeIfAbsent(directory, $ -> Map.copyOf(getManager(packType).listResources(directory, location -> true)));
+    }
+
     private ResourceLocation getLocation(ResourceLocation base, String suffix, String prefix) {
         return new ResourceLocation(base.getNamespace(), prefix + "/" + base.getPath() + suffix);
     }
@@ -150,7 +176,10 @@ public class ExistingFileHelper {
         if (!enable) {
             return true;
         }
-        return generated.get(packType).contains(loc) || getManager(packType).getResource(loc).isPresent();
+        if (generated.get(packType).contains(loc))
+            return true;
+        Map<ResourceLocation, Resource> index = getIndex(loc, packType);
+        return index != null ? index.containsKey(loc) : getManager(packType).getResource(loc).isPresent();
     }
 
     /**
@@ -232,6 +261,25 @@ public class ExistingFileHelper {
         this.generated.put(packType, getLocation(loc, pathSuffix, pathPrefix));
     }
 
+    /**
+     * {@return a copy of the locations of the files tracked as generated so far}
+     */
+    @ApiStatus.Internal
+    public ImmutableSetMultimap<PackType, ResourceLocation> getTrackedGenerated() {
+        synchronized (this.generated) {
+            return ImmutableSetMultimap.copyOf(this.generated);
+        }
+    }
+
+    /**
+     * Tracks the existence of a generated file from its full location, as returned by {@link #getTrackedGenerated()}.
+     * Used to restore the files tracked by a data provider that is skipped because its outputs did not change.
+     */
+    @ApiStatus.Internal
+    public void restoreTrackedGenerated(PackType packType, ResourceLocation location) {
+        this.generated.put(packType, location);
+    }
+
     @VisibleForTesting
     public Resource getResource(ResourceLocation loc, PackType packType, String pathSuffix, String pathPrefix) throws FileNotFoundException {
         return getResource(getLocation(loc, pathSuffix, pathPrefix), packType);
@@ -239,7 +287,9 @@ public class ExistingFileHelper {
 
     @VisibleForTesting
     public Resource getResource(ResourceLocation loc, PackType packType) throws FileNotFoundException {
-        return getManager(packType).getResourceOrThrow(loc);
+        Map<ResourceLocation, Resource> index = getIndex(loc, packType);
+        Resource resource = index != null ? index.get(loc) : null;
+        return resource != null ? resource : getManager(packType).getResourceOrThrow(loc);
     }
 
     @VisibleForTesting
@@ -12,16 +12,23 @@ import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.mojang.serialization.DataResult;
 import com.mojang.serialization.DynamicOps;
 import com.mojang.serialization.JsonOps;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import java.io.IOException;
 import java.io.Reader;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import net.minecraft.Util;
 import net.minecraft.resources.RegistryOps;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.packs.resources.Resource;
@@ -29,15 +36,34 @@ import net.minecraft.server.packs.resources.ResourceManager;
 import net.minecraft.server.packs.resources.SimpleJsonResourceReloadListener;
 import net.minecraft.util.GsonHelper;
 import net.minecraft.util.profiling.ProfilerFiller;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.storage.loot.LootContext;
+import net.minecraft.world.level.storage.loot.predicates.LootItemCondition;
 import net.neoforged.neoforge.common.conditions.ConditionalOps;
+import net.neoforged.neoforge.common.conditions.WithConditions;
+import net.neoforged.neoforge.resource.ParallelDecoder;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.Nullable;
 
 public class LootModifierManager extends SimpleJsonResourceReloadListener {
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
     public static final Logger LOGGER = LogManager.getLogger();
 
+    private static final ModifierEntry[] NO_MODIFIERS = new ModifierEntry[0];
+    // Kept across reloads, which create a new manager
+    private static volatile boolean trackingTimings;
+
     private Map<ResourceLocation, IGlobalLootModifier> registeredLootModifiers = ImmutableMap.of();
+    /**
+     * The modifiers that may apply to a loot table, in layered order, for every loot table targeted by a {@link LootTableIdCondition}.
+     */
+    private Map<ResourceLocation, ModifierEntry[]> modifiersByLootTable = Map.of();
+    /**
+     * The modifiers that are not restricted to a single loot table, in layered order, applied to every other loot table.
+     */
+    private ModifierEntry[] unindexedModifiers = NO_MODIFIERS;
+    private List<ModifierEntry> allModifiers = List.of();
     private static final String folder = "loot_modifiers";
 
     public LootModifierManager() {
@@ -66,7 +92,8 @@ public class LootModifierManager extends SimpleJsonResourceReloadListener {
                 LOGGER.error("Couldn't read global loot modifier list {} in data pack {}", resourceLocation, resource.sourcePackId(), ioexception);
             }
         }
-        Map<ResourceLocation, JsonElement> finalMap = new HashMap<>();
+        // Keep the layered order
+        Map<ResourceLocation, JsonElement> finalMap = new LinkedHashMap<>();
         //use layered config to fetch modifier data files (modifiers missing from config are disabled)
         for (ResourceLocation location : finalLocations) {
             finalMap.put(location, map.get(location));
@@ -78,10 +105,11 @@ public class LootModifierManager extends SimpleJsonResourceReloadListener {
     protected void apply(Map<ResourceLocation, JsonElement> resourceList, ResourceManager resourceManagerIn, ProfilerFiller profilerIn) {
         final DynamicOps<JsonElement> ops = ConditionalOps.create(RegistryOps.create(JsonOps.INSTANCE, registryAccess), conditionContext);
         Builder<ResourceLocation, IGlobalLootModifier> builder = ImmutableMap.builder();
-        for (Map.Entry<ResourceLocation, JsonElement> entry : resourceList.entrySet()) {
-            ResourceLocation location = entry.getKey();
-            JsonElement json = entry.getValue();
-            IGlobalLootModifier.CONDITIONAL_CODEC.parse(ops, json)
+        List<Map.Entry<ResourceLocation, JsonElement>> entries = List.copyOf(resourceList.entrySet());
+        List<Supplier<DataResult<Optional<WithConditions<IGlobalLootModifier>>>>> decoded = ParallelDecoder.decode(entries, entry -> IGlobalLootModifier.CONDITIONAL_CODEC.parse(ops, entry.getValue()));
+        for (int i = 0; i < entries.size(); i++) {
+            ResourceLocation location = entries.get(i).getKey();
+            decoded.get(i).get()
                     // log error if parse fails
                     .resultOrPartial(errorMsg -> LOGGER.warn("Could not decode GlobalLootModifier with json id {} - error: {}", location, errorMsg))
                     // add loot modifier if parse succeeds
@@ -89,6 +117,107 @@ public class LootModifierManager extends SimpleJsonResourceReloadListener {
                     .ifPresent(carrier -> builder.put(location, carrier.carrier()));
         }
         this.registeredLootModifiers = builder.build();
+        buildIndex();
+    }
+
+    private void buildIndex() {
+        List<ModifierEntry> all = new ArrayList<>(registeredLootModifiers.size());
+        List<ModifierEntry> unindexed = new ArrayList<>();
+        Map<ResourceLocation, List<ModifierEntry>> byLootTable = new HashMap<>();
+        for (Map.Entry<ResourceLocation, IGlobalLootModifier> entry : registeredLootModifiers.entrySet()) {
+            ModifierEntry modifier = new ModifierEntry(entry.getKey(), entry.getValue());
+            all.add(modifier);
+            ResourceLocation lootTable = getTargetLootTable(entry.getValue());
+            if (lootTable == null) {
+                // Applies to any loot table, including the ones that are indexed already
+                unindexed.add(modifier);
+                byLootTable.values().forEach(modifiers -> modifiers.add(modifier));
+            } else {
+                byLootTable.computeIfAbsent(lootTable, $ -> new ArrayList<>(unindexed)).add(modifier);
+            }
+        }
+        Map<ResourceLocation, ModifierEntry[]> index = new HashMap<>(byLootTable.size());
+        byLootTable.forEach((lootTable, modifiers) -> index.put(lootTable, modifiers.toArray(ModifierEntry[]::new)));
+        this.allModifiers = List.copyOf(all);
+        this.unindexedModifiers = unindexed.toArray(ModifierEntry[]::new);
+        this.modifiersByLootTable = index;
+        LOGGER.debug("Indexed {} global loot modifiers over {} loot tables, {} apply to every loot table", all.size(), index.size(), unindexed.size());
+    }
+
+    /**
+     * {@return the loot table the given modifier is restricted to, or {@code null} if it may apply to any loot table}
+     * A {@link LootModifier} is restricted to a loot table if any of its conditions is a {@link LootTableIdCondition}, since all its conditions must pass.
+     */
+    @Nullable
+    private static ResourceLocation getTargetLootTable(IGlobalLootModifier modifier) {
+        if (modifier instanceof LootModifier lootModifier) {
+            for (LootItemCondition condition : lootModifier.conditions) {
+                if (condition instanceof LootTableIdCondition idCondition)
+                    return idCondition.getTargetLootTableId();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Applies the modifiers that may apply to the given loot table, in layered order.
+     * Only the modifiers restricted to that loot table and the modifiers that are not restricted to a single loot table are run.
+     *
+     * @param lootTableId   the id of the loot table that generated the loot
+     * @param generatedLoot the loot generated by the loot table
+     * @param context       the loot context that generated the loot
+     * @return the modified loot
+     */
+    public ObjectArrayList<ItemStack> modifyLoot(ResourceLocation lootTableId, ObjectArrayList<ItemStack> generatedLoot, LootContext context) {
+        ModifierEntry[] modifiers = modifiersByLootTable.getOrDefault(lootTableId, unindexedModifiers);
+        if (!trackingTimings) {
+            for (ModifierEntry modifier : modifiers) {
+                generatedLoot = modifier.modifier.apply(generatedLoot, context);
+            }
+            return generatedLoot;
+        }
+        for (ModifierEntry modifier : modifiers) {
+            long start = Util.getNanos();
+            generatedLoot = modifier.modifier.apply(generatedLoot, context);
+            modifier.record(Util.getNanos() - start);
+        }
+        return generatedLoot;
+    }
+
+    /**
+     * Enables or disables the tracking of the time spent in each loot modifier, which is disabled by default.
+     */
+    public static void setTrackingTimings(boolean tracking) {
+        trackingTimings = tracking;
+    }
+
+    /**
+     * {@return whether the time spent in each loot modifier is tracked}
+     */
+    public static boolean isTrackingTimings() {
+        return trackingTimings;
+    }
+
+    /**
+     * {@return the time spent in each registered loot modifier while {@linkplain #setTrackingTimings(boolean) tracking} was enabled,
+     * since the last reload or {@linkplain #resetTimings() reset}, in layered order}
+     */
+    public List<ModifierTimings> getTimings() {
+        List<ModifierTimings> timings = new ArrayList<>(allModifiers.size());
+        for (ModifierEntry modifier : allModifiers) {
+            timings.add(new ModifierTimings(modifier.id, modifier.count.sum(), modifier.nanos.sum()));
+        }
+        return timings;
+    }
+
+    /**
+     * Clears the time spent in each registered loot modifier.
+     */
+    public void resetTimings() {
+        for (ModifierEntry modifier : allModifiers) {
+            modifier.count.reset();
+            modifier.nanos.reset();
+        }
     }
 
     /**
@@ -98,4 +227,34 @@ public class LootModifierManager extends SimpleJsonResourceReloadListener {
         return registeredLootModifiers.values();
     }
 
+    private static final class ModifierEntry {
+        private final ResourceLocation id;
+        private final IGlobalLootModifier modifier;
+        // Loot may be generated off the server thread, so the counters must be safe to update concurrently
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        private ModifierEntry(ResourceLocation id, IGlobalLootModifier modifier) {
+            this.id = id;
+            this.modifier = modifier;
+        }
+
+        private void record(long elapsed) {
+            count.increment();
+            nanos.add(elapsed);
+        }
+    }
+
+    /**
+     * The time spent in a loot modifier.
+     *
+     * @param id         the id of the loot modifier
+     * @param count      the number of times the modifier was applied, including the times its conditions did not pass
+     * @param totalNanos the total time spent in the modifier, in nanoseconds
+     */
+    public record ModifierTimings(ResourceLocation id, long count, long totalNanos) {
+        public double getAverageNanos() {
+            return count == 0 ? 0 : (double) totalNanos / count;
+        }
+    }
 }
@@ -28,6 +28,10 @@ public class LootTableIdCondition implements LootItemCondition {
         this.targetLootTableId = targetLootTableId;
     }
 
+    public ResourceLocation getTargetLootTableId() {
+        return targetLootTableId;
+    }
+
     @Override
     public LootItemConditionType getType() {
         return LOOT_TABLE_ID;
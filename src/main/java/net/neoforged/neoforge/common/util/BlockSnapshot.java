@@ -5,7 +5,11 @@
 
 package net.neoforged.neoforge.common.util;
 
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import net.minecraft.core.BlockPos;
 import net.minecraft.nbt.CompoundTag;
@@ -17,6 +21,7 @@ import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
 import net.neoforged.neoforge.server.ServerLifecycleHooks;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
 /**
@@ -58,7 +63,46 @@ public class BlockSnapshot {
     }
 
     public static BlockSnapshot create(ResourceKey<Level> dim, LevelAccessor world, BlockPos pos, int flag) {
-        return new BlockSnapshot(dim, world, pos, world.getBlockState(pos), getBlockEntityTag(world.getBlockEntity(pos)), flag);
+        BlockState state = world.getBlockState(pos);
+        // Only states with a block entity can have one, skip the lookup for all others
+        return new BlockSnapshot(dim, world, pos, state, state.hasBlockEntity() ? getBlockEntityTag(world.getBlockEntity(pos)) : null, flag);
+    }
+
+    /**
+     * Restores a list of snapshots, as if {@link #restore(boolean, boolean)} was called on each of them in reverse order.
+     * <p>
+     * Only the first snapshot of each position is restored, since the later ones would be overwritten by it.
+     *
+     * @param snapshots the snapshots to restore, in the order they were captured in
+     */
+    public static void restoreAll(List<BlockSnapshot> snapshots, boolean force, boolean notifyNeighbors) {
+        if (snapshots.size() == 1) {
+            snapshots.get(0).restore(force, notifyNeighbors);
+            return;
+        }
+        LongSet seen = new LongOpenHashSet(snapshots.size());
+        List<BlockSnapshot> toRestore = new ArrayList<>(snapshots.size());
+        for (BlockSnapshot snapshot : snapshots) {
+            if (seen.add(snapshot.getPos().asLong()))
+                toRestore.add(snapshot);
+        }
+        for (int i = toRestore.size() - 1; i >= 0; i--) {
+            toRestore.get(i).restore(force, notifyNeighbors);
+        }
+    }
+
+    /**
+     * Removes a snapshot that was just captured, because capturing the block change failed.
+     * The snapshot is looked up by identity, starting from the end of the list where it was added.
+     */
+    @ApiStatus.Internal
+    public static void removeCaptured(List<BlockSnapshot> capturedSnapshots, BlockSnapshot snapshot) {
+        for (int i = capturedSnapshots.size() - 1; i >= 0; i--) {
+            if (capturedSnapshots.get(i) == snapshot) {
+                capturedSnapshots.remove(i);
+                return;
+            }
+        }
     }
 
     @Nullable
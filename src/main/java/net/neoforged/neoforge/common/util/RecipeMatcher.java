@@ -5,13 +5,13 @@
 
 package net.neoforged.neoforge.common.util;
 
-import java.util.BitSet;
-import java.util.LinkedList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Queue;
 import java.util.function.Predicate;
 
 public class RecipeMatcher {
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+
     /**
      * Attempts to match inputs to the specified tests. In the best way that all inputs are used by one test.
      * Will return null in any of these cases:
@@ -19,6 +19,9 @@ public class RecipeMatcher {
      * any input doesn't match a test
      * any test doesn't match a input
      * If we are unable to determine a proper pair
+     * <p>
+     * Each test is evaluated once against each input, then the pairs are found with the Hopcroft-Karp algorithm,
+     * which runs in {@code O(E * sqrt(V))} time without recursing, whatever the inputs.
      *
      * @return An array mapping inputs to tests. ret[x] = y means input[x] = test[y]
      */
@@ -27,109 +30,145 @@ public class RecipeMatcher {
         if (elements != tests.size())
             return null; // There will not be a 1:1 mapping of inputs -> tests
 
-        int[] ret = new int[elements];
-        for (int x = 0; x < elements; x++)
-            ret[x] = -1;
-
-        // [UnusedInputs] [UnusedIngredients] [IngredientMatchMask]...
-        BitSet data = new BitSet((elements + 2) * elements);
+        // The inputs matched by each test, test x matches the inputs edges[x * elements] to edges[x * elements + degrees[x] - 1]
+        int[] edges = new int[elements * elements];
+        int[] degrees = new int[elements];
+        boolean[] inputMatched = new boolean[elements];
+        int matchedInputs = 0;
         for (int x = 0; x < elements; x++) {
-            int matched = 0;
-            int offset = (x + 2) * elements;
             Predicate<T> test = tests.get(x);
-
+            int offset = x * elements;
+            int degree = 0;
             for (int y = 0; y < elements; y++) {
-                if (data.get(y))
-                    continue;
-
                 if (test.test(inputs.get(y))) {
-                    data.set(offset + y);
-                    matched++;
+                    edges[offset + degree++] = y;
+                    if (!inputMatched[y]) {
+                        inputMatched[y] = true;
+                        matchedInputs++;
+                    }
                 }
             }
 
-            if (matched == 0)
-                return null; //We have an test that matched non of the inputs
-
-            if (matched == 1) {
-                if (!claim(ret, data, x, elements))
-                    return null; //We failed to claim this index, which means it caused something else to go to 0 matches, which makes the whole thing fail
-            }
+            if (degree == 0)
+                return null; // We have a test that matched none of the inputs
+            degrees[x] = degree;
         }
 
-        if (data.nextClearBit(0) >= elements) //All items have been used, which means all tests have a match!
-            return ret;
+        if (matchedInputs != elements)
+            return null; // We have an input that matched none of the tests
 
-        // We should be in a state where multiple tests are satified by multiple inputs. So we need to try a branching recursive test.
-        // However for performance reasons, we should probably make that check a sub-set of the entire graph.
-        if (backtrack(data, ret, 0, elements))
-            return ret;
+        int[] ret = new int[elements]; // The test paired with each input
+        int[] pairs = new int[elements]; // The input paired with each test
+        Arrays.fill(ret, -1);
+        Arrays.fill(pairs, -1);
 
-        return null; //Backtrack failed, no matches, we cry and go home now :(
-    }
-
-    // This is bad... need to think of a better cascade, recursion instead of stack?
-    private static boolean claim(int[] ret, BitSet data, int claimed, int elements) {
-        Queue<Integer> pending = new LinkedList<Integer>();
-        pending.add(claimed);
-
-        while (pending.peek() != null) {
-            int test = pending.poll();
-            int offset = (test + 2) * elements;
-            int used = data.nextSetBit(offset) - offset;
+        // Pair greedily first, which usually pairs almost everything and leaves few augmenting paths to find
+        int paired = 0;
+        for (int x = 0; x < elements; x++) {
+            int offset = x * elements;
+            for (int i = 0; i < degrees[x]; i++) {
+                int y = edges[offset + i];
+                if (ret[y] == -1) {
+                    ret[y] = x;
+                    pairs[x] = y;
+                    paired++;
+                    break;
+                }
+            }
+        }
 
-            if (used >= elements || used < 0)
-                throw new IllegalStateException("What? We matched something, but it wasn't set in the range of this test! Test: " + test + " Used: " + used);
+        if (paired == elements)
+            return ret;
 
-            data.set(used);
-            data.set(elements + test);
-            ret[used] = test;
+        int[] distances = new int[elements];
+        int[] queue = new int[elements];
+        int[] nextEdges = new int[elements];
+        int[] path = new int[elements];
+        while (true) {
+            int augmentLength = computeDistances(edges, degrees, ret, pairs, distances, queue, elements);
+            if (augmentLength == UNREACHABLE)
+                return null; // No augmenting path left, some tests can not be paired
 
+            Arrays.fill(nextEdges, 0);
             for (int x = 0; x < elements; x++) {
-                offset = (x + 2) * elements;
-                if (data.get(offset + used) && !data.get(elements + x)) {
-                    data.clear(offset + used);
-                    int count = 0;
-                    for (int y = offset; y < offset + elements; y++)
-                        if (data.get(y))
-                            count++;
-
-                    if (count == 0)
-                        return false; //Claiming this caused another test to lose its last match..
-
-                    if (count == 1)
-                        pending.add(x);
+                if (pairs[x] == -1 && augment(x, augmentLength, edges, degrees, ret, pairs, distances, nextEdges, path, elements)) {
+                    if (++paired == elements)
+                        return ret;
                 }
             }
         }
-
-        return true;
     }
 
-    //We use recursion here, why? Because I feel like it. Also because we should only ever be working in data sets < 9
-    private static boolean backtrack(BitSet data, int[] ret, int start, int elements) {
-        int test = data.nextClearBit(elements + start) - elements;
-        if (test >= elements)
-            return true; //Could not find the next unused test.
-
-        if (test < 0)
-            throw new IllegalStateException("This should never happen, negative test in backtrack!");
-
-        int offset = (test + 2) * elements;
+    /**
+     * Computes the distance of each test from the unpaired tests, alternating between unpaired and paired edges.
+     *
+     * @return the distance of the closest test with an edge to an unpaired input, or {@link #UNREACHABLE} if there is none
+     */
+    private static int computeDistances(int[] edges, int[] degrees, int[] ret, int[] pairs, int[] distances, int[] queue, int elements) {
+        int head = 0;
+        int tail = 0;
         for (int x = 0; x < elements; x++) {
-            if (!data.get(offset + x) || data.get(x))
+            if (pairs[x] == -1) {
+                distances[x] = 0;
+                queue[tail++] = x;
+            } else {
+                distances[x] = UNREACHABLE;
+            }
+        }
+
+        int augmentLength = UNREACHABLE;
+        while (head < tail) {
+            int x = queue[head++];
+            if (distances[x] >= augmentLength)
                 continue;
+            int offset = x * elements;
+            for (int i = 0; i < degrees[x]; i++) {
+                int next = ret[edges[offset + i]];
+                if (next == -1) {
+                    if (augmentLength == UNREACHABLE)
+                        augmentLength = distances[x];
+                } else if (distances[next] == UNREACHABLE) {
+                    distances[next] = distances[x] + 1;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return augmentLength;
+    }
 
-            data.set(x);
+    /**
+     * Searches a shortest augmenting path from the given unpaired test with an explicit stack, and flips the pairs along it if one is found.
+     */
+    private static boolean augment(int start, int augmentLength, int[] edges, int[] degrees, int[] ret, int[] pairs, int[] distances, int[] nextEdges, int[] path, int elements) {
+        int depth = 0;
+        path[depth++] = start;
+        while (depth > 0) {
+            int x = path[depth - 1];
+            if (nextEdges[x] == degrees[x]) {
+                // Dead end, never visit this test again during this phase
+                distances[x] = UNREACHABLE;
+                depth--;
+                continue;
+            }
 
-            if (backtrack(data, ret, test + 1, elements)) {
-                ret[x] = test;
+            int y = edges[x * elements + nextEdges[x]++];
+            int next = ret[y];
+            if (next == -1) {
+                if (distances[x] != augmentLength)
+                    continue;
+                // Found an unpaired input, pair every test of the path with the input it went through
+                for (int i = depth - 1; i >= 0; i--) {
+                    int test = path[i];
+                    int input = edges[test * elements + nextEdges[test] - 1];
+                    ret[input] = test;
+                    pairs[test] = input;
+                }
                 return true;
             }
 
-            data.clear(x);
+            if (distances[next] == distances[x] + 1)
+                path[depth++] = next;
         }
-
         return false;
     }
 }
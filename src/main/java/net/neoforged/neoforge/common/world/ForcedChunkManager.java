@@ -8,13 +8,17 @@ package net.neoforged.neoforge.common.world;
 import com.mojang.datafixers.util.Pair;
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
 import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import it.unimi.dsi.fastutil.longs.LongSet;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.UUID;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
@@ -43,6 +47,7 @@ public class ForcedChunkManager {
     private static final TicketType<TicketOwner<UUID>> ENTITY = TicketType.create("neoforge:entity", Comparator.comparing(info -> info));
     private static final TicketType<TicketOwner<UUID>> ENTITY_TICKING = TicketType.create("neoforge:entity_ticking", Comparator.comparing(info -> info));
     private static final Map<String, LoadingValidationCallback> callbacks = new HashMap<>();
+    private static final SavedData.Factory<ForcedChunksSavedData> SAVED_DATA_FACTORY = new SavedData.Factory<>(ForcedChunksSavedData::new, ForcedChunksSavedData::load);
 
     /**
      * Sets the forced chunk loading validation callback for the given mod. This allows for validating and removing no longer valid tickets on level load.
@@ -61,7 +66,7 @@ public class ForcedChunkManager {
      * Checks if a level has any forced chunks. Mainly used for seeing if a level should continue ticking with no players in it.
      */
     public static boolean hasForcedChunks(ServerLevel level) {
-        ForcedChunksSavedData data = level.getDataStorage().get(new SavedData.Factory<>(ForcedChunksSavedData::new, ForcedChunksSavedData::load), "chunks");
+        ForcedChunksSavedData data = level.getDataStorage().get(SAVED_DATA_FACTORY, "chunks");
         if (data == null) return false;
         return !data.getChunks().isEmpty() || !data.getBlockForcedChunks().isEmpty() || !data.getEntityForcedChunks().isEmpty();
     }
@@ -153,20 +158,13 @@ public class ForcedChunkManager {
      * @apiNote Internal
      */
     public static void reinstatePersistentChunks(ServerLevel level, ForcedChunksSavedData saveData) {
-        if (!callbacks.isEmpty()) {
-            //If we have any callbacks, gather all owned tickets by modid for both blocks and entities
-            Map<String, Map<BlockPos, Pair<LongSet, LongSet>>> blockTickets = gatherTicketsByModId(saveData.getBlockForcedChunks());
-            Map<String, Map<UUID, Pair<LongSet, LongSet>>> entityTickets = gatherTicketsByModId(saveData.getEntityForcedChunks());
-            //Fire the callbacks allowing them to remove any tickets they don't want anymore
-            for (Map.Entry<String, LoadingValidationCallback> entry : callbacks.entrySet()) {
-                String modId = entry.getKey();
-                boolean hasBlockTicket = blockTickets.containsKey(modId);
-                boolean hasEntityTicket = entityTickets.containsKey(modId);
-                if (hasBlockTicket || hasEntityTicket) {
-                    Map<BlockPos, Pair<LongSet, LongSet>> ownedBlockTickets = hasBlockTicket ? Collections.unmodifiableMap(blockTickets.get(modId)) : Collections.emptyMap();
-                    Map<UUID, Pair<LongSet, LongSet>> ownedEntityTickets = hasEntityTicket ? Collections.unmodifiableMap(entityTickets.get(modId)) : Collections.emptyMap();
-                    entry.getValue().validateTickets(level, new TicketHelper(saveData, modId, ownedBlockTickets, ownedEntityTickets));
-                }
+        //Fire the callbacks allowing them to remove any tickets they don't want anymore, only gathering the tickets of mods that have a callback
+        for (Map.Entry<String, LoadingValidationCallback> entry : callbacks.entrySet()) {
+            String modId = entry.getKey();
+            Map<BlockPos, Pair<LongSet, LongSet>> ownedBlockTickets = saveData.getBlockForcedChunks().gatherTickets(modId);
+            Map<UUID, Pair<LongSet, LongSet>> ownedEntityTickets = saveData.getEntityForcedChunks().gatherTickets(modId);
+            if (!ownedBlockTickets.isEmpty() || !ownedEntityTickets.isEmpty()) {
+                entry.getValue().validateTickets(level, new TicketHelper(saveData, modId, ownedBlockTickets, ownedEntityTickets));
             }
         }
         //Reinstate the chunks that we want to load
@@ -176,28 +174,6 @@ public class ForcedChunkManager {
         reinstatePersistentChunks(level, ENTITY_TICKING, saveData.getEntityForcedChunks().tickingChunks, true);
     }
 
-    /**
-     * Gathers tickets into a mod filtered map for use in providing all tickets a mod has registered to its {@link LoadingValidationCallback}.
-     */
-    private static <T extends Comparable<? super T>> Map<String, Map<T, Pair<LongSet, LongSet>>> gatherTicketsByModId(TicketTracker<T> tickets) {
-        Map<String, Map<T, Pair<LongSet, LongSet>>> modSortedOwnedChunks = new HashMap<>();
-        gatherTicketsByModId(tickets.chunks, Pair::getFirst, modSortedOwnedChunks);
-        gatherTicketsByModId(tickets.tickingChunks, Pair::getSecond, modSortedOwnedChunks);
-        return modSortedOwnedChunks;
-    }
-
-    /**
-     * Gathers tickets into a mod filtered map for use in providing all tickets a mod has registered to its {@link LoadingValidationCallback}.
-     */
-    private static <T extends Comparable<? super T>> void gatherTicketsByModId(Map<TicketOwner<T>, LongSet> tickets, Function<Pair<LongSet, LongSet>, LongSet> typeGetter,
-            Map<String, Map<T, Pair<LongSet, LongSet>>> modSortedOwnedChunks) {
-        for (Map.Entry<TicketOwner<T>, LongSet> entry : tickets.entrySet()) {
-            Pair<LongSet, LongSet> pair = modSortedOwnedChunks.computeIfAbsent(entry.getKey().modId, modId -> new HashMap<>())
-                    .computeIfAbsent(entry.getKey().owner, owner -> new Pair<>(new LongOpenHashSet(), new LongOpenHashSet()));
-            typeGetter.apply(pair).addAll(entry.getValue());
-        }
-    }
-
     /**
      * Adds back any persistent forced chunks to the level's chunk provider.
      */
@@ -211,58 +187,74 @@ public class ForcedChunkManager {
     }
 
     /**
-     * Writes the mod forced chunks into the NBT compound. Format is List{modid, List{ChunkPos, List{BlockPos}, List{UUID}}}
+     * Writes the mod forced chunks into the NBT compound. Format is List{modid, long[] blocks, long[] ticking blocks, long[] entities, long[] ticking entities}, where each
+     * array is a sequence of {owner, chunk count, chunks...} and owners are written as one long for block positions and two longs for UUIDs.
      */
     @ApiStatus.Internal
     public static void writeModForcedChunks(CompoundTag nbt, TicketTracker<BlockPos> blockForcedChunks, TicketTracker<UUID> entityForcedChunks) {
         if (!blockForcedChunks.isEmpty() || !entityForcedChunks.isEmpty()) {
-            Map<String, Long2ObjectMap<CompoundTag>> forcedEntries = new HashMap<>();
-            writeForcedChunkOwners(forcedEntries, blockForcedChunks, "Blocks", Tag.TAG_COMPOUND, (pos, forcedBlocks) -> forcedBlocks.add(NbtUtils.writeBlockPos(pos)));
-            writeForcedChunkOwners(forcedEntries, entityForcedChunks, "Entities", Tag.TAG_INT_ARRAY, (uuid, forcedEntities) -> forcedEntities.add(NbtUtils.createUUID(uuid)));
+            Set<String> modIds = new TreeSet<>(blockForcedChunks.ownersByModId.keySet());
+            modIds.addAll(entityForcedChunks.ownersByModId.keySet());
             ListTag forcedChunks = new ListTag();
-            for (Map.Entry<String, Long2ObjectMap<CompoundTag>> entry : forcedEntries.entrySet()) {
+            for (String modId : modIds) {
                 CompoundTag forcedEntry = new CompoundTag();
-                forcedEntry.putString("Mod", entry.getKey());
-                ListTag modForced = new ListTag();
-                modForced.addAll(entry.getValue().values());
-                forcedEntry.put("ModForced", modForced);
+                forcedEntry.putString("Mod", modId);
+                writeForcedChunkOwners(forcedEntry, blockForcedChunks, modId, "Blocks", (pos, out) -> out.add(pos.asLong()));
+                writeForcedChunkOwners(forcedEntry, entityForcedChunks, modId, "Entities", (uuid, out) -> {
+                    out.add(uuid.getMostSignificantBits());
+                    out.add(uuid.getLeastSignificantBits());
+                });
                 forcedChunks.add(forcedEntry);
             }
-            nbt.put("ModForced", forcedChunks);
+            nbt.put("ModForcedCompact", forcedChunks);
         }
     }
 
-    private static <T extends Comparable<? super T>> void writeForcedChunkOwners(Map<String, Long2ObjectMap<CompoundTag>> forcedEntries, TicketTracker<T> tracker,
-            String listKey, int listType, BiConsumer<T, ListTag> ownerWriter) {
-        writeForcedChunkOwners(forcedEntries, tracker.chunks, listKey, listType, ownerWriter);
-        writeForcedChunkOwners(forcedEntries, tracker.tickingChunks, "Ticking" + listKey, listType, ownerWriter);
+    private static <T extends Comparable<? super T>> void writeForcedChunkOwners(CompoundTag forcedEntry, TicketTracker<T> tracker, String modId, String key,
+            BiConsumer<T, LongArrayList> ownerWriter) {
+        Set<TicketOwner<T>> owners = tracker.ownersByModId.get(modId);
+        if (owners != null) {
+            writeForcedChunkOwners(forcedEntry, owners, tracker.chunks, key, ownerWriter);
+            writeForcedChunkOwners(forcedEntry, owners, tracker.tickingChunks, "Ticking" + key, ownerWriter);
+        }
     }
 
-    private static <T extends Comparable<? super T>> void writeForcedChunkOwners(Map<String, Long2ObjectMap<CompoundTag>> forcedEntries,
-            Map<TicketOwner<T>, LongSet> forcedChunks, String listKey, int listType, BiConsumer<T, ListTag> ownerWriter) {
-        for (Map.Entry<TicketOwner<T>, LongSet> entry : forcedChunks.entrySet()) {
-            Long2ObjectMap<CompoundTag> modForced = forcedEntries.computeIfAbsent(entry.getKey().modId, modId -> new Long2ObjectOpenHashMap<>());
-            for (long chunk : entry.getValue()) {
-                CompoundTag modEntry = modForced.computeIfAbsent(chunk, chunkPos -> {
-                    CompoundTag baseEntry = new CompoundTag();
-                    baseEntry.putLong("Chunk", chunkPos);
-                    return baseEntry;
-                });
-                ListTag ownerList = modEntry.getList(listKey, listType);
-                ownerWriter.accept(entry.getKey().owner, ownerList);
-                //Note: As getList returns a new list in the case the data is of the wrong type,
-                // we need to mimic was vanilla does in various places and put our list back in
-                // the CompoundNBT regardless.
-                modEntry.put(listKey, ownerList);
+    private static <T extends Comparable<? super T>> void writeForcedChunkOwners(CompoundTag forcedEntry, Set<TicketOwner<T>> owners,
+            Map<TicketOwner<T>, LongSet> forcedChunks, String key, BiConsumer<T, LongArrayList> ownerWriter) {
+        LongArrayList data = new LongArrayList();
+        for (TicketOwner<T> owner : owners) {
+            LongSet chunks = forcedChunks.get(owner);
+            if (chunks != null) {
+                ownerWriter.accept(owner.owner, data);
+                data.add(chunks.size());
+                data.addAll(chunks);
             }
         }
+        if (!data.isEmpty())
+            forcedEntry.putLongArray(key, data.toLongArray());
     }
 
     /**
-     * Reads the mod forced chunks from the NBT compound. Format is List{modid, List{ChunkPos, List{BlockPos}, List{UUID}}}
+     * Reads the mod forced chunks from the NBT compound. See {@link #writeModForcedChunks} for the format.
+     * <p>
+     * The format used by older versions, List{modid, List{ChunkPos, List{BlockPos}, List{UUID}}}, is read as well.
      */
     @ApiStatus.Internal
     public static void readModForcedChunks(CompoundTag nbt, TicketTracker<BlockPos> blockForcedChunks, TicketTracker<UUID> entityForcedChunks) {
+        ListTag compactForcedChunks = nbt.getList("ModForcedCompact", Tag.TAG_COMPOUND);
+        for (int i = 0; i < compactForcedChunks.size(); i++) {
+            CompoundTag forcedEntry = compactForcedChunks.getCompound(i);
+            String modId = forcedEntry.getString("Mod");
+            if (ModList.get().isLoaded(modId)) {
+                readForcedChunkOwners(modId, forcedEntry.getLongArray("Blocks"), blockForcedChunks, false, (data, index) -> BlockPos.of(data[index]), 1);
+                readForcedChunkOwners(modId, forcedEntry.getLongArray("TickingBlocks"), blockForcedChunks, true, (data, index) -> BlockPos.of(data[index]), 1);
+                readForcedChunkOwners(modId, forcedEntry.getLongArray("Entities"), entityForcedChunks, false, (data, index) -> new UUID(data[index], data[index + 1]), 2);
+                readForcedChunkOwners(modId, forcedEntry.getLongArray("TickingEntities"), entityForcedChunks, true, (data, index) -> new UUID(data[index], data[index + 1]), 2);
+            } else {
+                LOGGER.warn("Found chunk loading data for mod {} which is currently not available or active - it will be removed from the level save.", modId);
+            }
+        }
+
         ListTag forcedChunks = nbt.getList("ModForced", Tag.TAG_COMPOUND);
         for (int i = 0; i < forcedChunks.size(); i++) {
             CompoundTag forcedEntry = forcedChunks.getCompound(i);
@@ -272,10 +264,10 @@ public class ForcedChunkManager {
                 for (int j = 0; j < modForced.size(); j++) {
                     CompoundTag modEntry = modForced.getCompound(j);
                     long chunkPos = modEntry.getLong("Chunk");
-                    readBlockForcedChunks(modId, chunkPos, modEntry, "Blocks", blockForcedChunks.chunks);
-                    readBlockForcedChunks(modId, chunkPos, modEntry, "TickingBlocks", blockForcedChunks.tickingChunks);
-                    readEntityForcedChunks(modId, chunkPos, modEntry, "Entities", entityForcedChunks.chunks);
-                    readEntityForcedChunks(modId, chunkPos, modEntry, "TickingEntities", entityForcedChunks.tickingChunks);
+                    readBlockForcedChunks(modId, chunkPos, modEntry, "Blocks", blockForcedChunks, false);
+                    readBlockForcedChunks(modId, chunkPos, modEntry, "TickingBlocks", blockForcedChunks, true);
+                    readEntityForcedChunks(modId, chunkPos, modEntry, "Entities", entityForcedChunks, false);
+                    readEntityForcedChunks(modId, chunkPos, modEntry, "TickingEntities", entityForcedChunks, true);
                 }
             } else {
                 LOGGER.warn("Found chunk loading data for mod {} which is currently not available or active - it will be removed from the level save.", modId);
@@ -283,23 +275,41 @@ public class ForcedChunkManager {
         }
     }
 
+    private static <T extends Comparable<? super T>> void readForcedChunkOwners(String modId, long[] data, TicketTracker<T> tracker, boolean ticking,
+            OwnerReader<T> ownerReader, int ownerSize) {
+        int index = 0;
+        while (index + ownerSize < data.length) {
+            TicketOwner<T> owner = new TicketOwner<>(modId, ownerReader.read(data, index));
+            index += ownerSize;
+            int count = (int) Math.min(data[index++], data.length - index);
+            for (int i = 0; i < count; i++) {
+                tracker.add(owner, data[index++], ticking);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface OwnerReader<T> {
+        T read(long[] data, int index);
+    }
+
     /**
-     * Reads the forge block forced chunks.
+     * Reads the forge block forced chunks from the old format.
      */
-    private static void readBlockForcedChunks(String modId, long chunkPos, CompoundTag modEntry, String key, Map<TicketOwner<BlockPos>, LongSet> blockForcedChunks) {
+    private static void readBlockForcedChunks(String modId, long chunkPos, CompoundTag modEntry, String key, TicketTracker<BlockPos> blockForcedChunks, boolean ticking) {
         ListTag forcedBlocks = modEntry.getList(key, Tag.TAG_COMPOUND);
         for (int k = 0; k < forcedBlocks.size(); k++) {
-            blockForcedChunks.computeIfAbsent(new TicketOwner<>(modId, NbtUtils.readBlockPos(forcedBlocks.getCompound(k))), owner -> new LongOpenHashSet()).add(chunkPos);
+            blockForcedChunks.add(new TicketOwner<>(modId, NbtUtils.readBlockPos(forcedBlocks.getCompound(k))), chunkPos, ticking);
         }
     }
 
     /**
-     * Reads the forge entity forced chunks.
+     * Reads the forge entity forced chunks from the old format.
      */
-    private static void readEntityForcedChunks(String modId, long chunkPos, CompoundTag modEntry, String key, Map<TicketOwner<UUID>, LongSet> entityForcedChunks) {
+    private static void readEntityForcedChunks(String modId, long chunkPos, CompoundTag modEntry, String key, TicketTracker<UUID> entityForcedChunks, boolean ticking) {
         ListTag forcedEntities = modEntry.getList(key, Tag.TAG_INT_ARRAY);
         for (Tag uuid : forcedEntities) {
-            entityForcedChunks.computeIfAbsent(new TicketOwner<>(modId, NbtUtils.loadUUID(uuid)), owner -> new LongOpenHashSet()).add(chunkPos);
+            entityForcedChunks.add(new TicketOwner<>(modId, NbtUtils.loadUUID(uuid)), chunkPos, ticking);
         }
     }
 
@@ -372,12 +382,8 @@ public class ForcedChunkManager {
          * Removes all tickets that a given owner was responsible for; both ticking and not ticking.
          */
         private <T extends Comparable<? super T>> void removeAllTickets(TicketTracker<T> tickets, T owner) {
-            TicketOwner<T> ticketOwner = new TicketOwner<>(modId, owner);
-            if (tickets.chunks.containsKey(ticketOwner) || tickets.tickingChunks.containsKey(ticketOwner)) {
-                tickets.chunks.remove(ticketOwner);
-                tickets.tickingChunks.remove(ticketOwner);
+            if (tickets.removeAll(new TicketOwner<>(modId, owner)))
                 saveData.setDirty(true);
-            }
         }
 
         /**
@@ -420,6 +426,20 @@ public class ForcedChunkManager {
             this.owner = owner;
         }
 
+        /**
+         * {@return the id of the mod that owns the ticket}
+         */
+        public String getModId() {
+            return modId;
+        }
+
+        /**
+         * {@return the block position or entity UUID responsible for the ticket}
+         */
+        public T getOwner() {
+            return owner;
+        }
+
         @Override
         public int compareTo(TicketOwner<T> other) {
             int res = modId.compareTo(other.modId);
@@ -442,10 +462,15 @@ public class ForcedChunkManager {
 
     /**
      * Helper class to manage tracking and handling loaded tickets.
+     * <p>
+     * Besides the tickets of each owner, this keeps indexes of the owners forcing each chunk and the owners belonging to each mod,
+     * which are updated as tickets are added and removed.
      */
     public static class TicketTracker<T extends Comparable<? super T>> {
         private final Map<TicketOwner<T>, LongSet> chunks = new HashMap<>();
         private final Map<TicketOwner<T>, LongSet> tickingChunks = new HashMap<>();
+        private final Long2ObjectMap<Set<TicketOwner<T>>> ownersByChunk = new Long2ObjectOpenHashMap<>();
+        private final Map<String, Set<TicketOwner<T>>> ownersByModId = new HashMap<>();
 
         /**
          * Gets an unmodifiable view of the tracked chunks.
@@ -461,6 +486,22 @@ public class ForcedChunkManager {
             return Collections.unmodifiableMap(tickingChunks);
         }
 
+        /**
+         * Gets an unmodifiable view of the owners that have a ticket, ticking or not, for the given chunk.
+         */
+        public Set<TicketOwner<T>> getOwners(long chunk) {
+            Set<TicketOwner<T>> owners = ownersByChunk.get(chunk);
+            return owners == null ? Collections.emptySet() : Collections.unmodifiableSet(owners);
+        }
+
+        /**
+         * Gets an unmodifiable view of the owners that have at least one ticket, ticking or not, for the given mod.
+         */
+        public Set<TicketOwner<T>> getOwners(String modId) {
+            Set<TicketOwner<T>> owners = ownersByModId.get(modId);
+            return owners == null ? Collections.emptySet() : Collections.unmodifiableSet(owners);
+        }
+
         /**
          * Checks if this tracker is empty.
          *
@@ -479,22 +520,78 @@ public class ForcedChunkManager {
          */
         private boolean remove(TicketOwner<T> owner, long chunk, boolean ticking) {
             Map<TicketOwner<T>, LongSet> tickets = getTickets(ticking);
-            if (tickets.containsKey(owner)) {
-                LongSet ticketChunks = tickets.get(owner);
-                if (ticketChunks.remove(chunk)) {
-                    if (ticketChunks.isEmpty())
-                        tickets.remove(owner);
-                    return true;
-                }
+            LongSet ticketChunks = tickets.get(owner);
+            if (ticketChunks != null && ticketChunks.remove(chunk)) {
+                if (ticketChunks.isEmpty())
+                    tickets.remove(owner);
+                LongSet otherChunks = getTickets(!ticking).get(owner);
+                if (otherChunks == null || !otherChunks.contains(chunk))
+                    unindex(ownersByChunk, chunk, owner);
+                if (!chunks.containsKey(owner) && !tickingChunks.containsKey(owner))
+                    unindex(ownersByModId, owner.modId, owner);
+                return true;
             }
             return false;
         }
 
+        /**
+         * Removes all tickets of the given owner, ticking and not ticking.
+         *
+         * @return {@code true} if the state changed.
+         */
+        private boolean removeAll(TicketOwner<T> owner) {
+            LongSet removed = chunks.remove(owner);
+            LongSet removedTicking = tickingChunks.remove(owner);
+            if (removed == null && removedTicking == null)
+                return false;
+            if (removed != null)
+                removed.forEach((long chunk) -> unindex(ownersByChunk, chunk, owner));
+            if (removedTicking != null)
+                removedTicking.forEach((long chunk) -> unindex(ownersByChunk, chunk, owner));
+            unindex(ownersByModId, owner.modId, owner);
+            return true;
+        }
+
         /**
          * @return {@code true} if the state changed.
          */
         private boolean add(TicketOwner<T> owner, long chunk, boolean ticking) {
-            return getTickets(ticking).computeIfAbsent(owner, o -> new LongOpenHashSet()).add(chunk);
+            if (getTickets(ticking).computeIfAbsent(owner, o -> new LongOpenHashSet()).add(chunk)) {
+                ownersByChunk.computeIfAbsent(chunk, c -> new HashSet<>()).add(owner);
+                ownersByModId.computeIfAbsent(owner.modId, modId -> new HashSet<>()).add(owner);
+                return true;
+            }
+            return false;
+        }
+
+        private static <K, O> void unindex(Map<K, Set<O>> index, K key, O owner) {
+            Set<O> owners = index.get(key);
+            if (owners != null && owners.remove(owner) && owners.isEmpty())
+                index.remove(key);
+        }
+
+        private static <O> void unindex(Long2ObjectMap<Set<O>> index, long key, O owner) {
+            Set<O> owners = index.get(key);
+            if (owners != null && owners.remove(owner) && owners.isEmpty())
+                index.remove(key);
+        }
+
+        /**
+         * Gathers a snapshot of the tickets of a mod, for use in providing all tickets a mod has registered to its {@link LoadingValidationCallback}.
+         * First element of each pair is the non-fully ticking tickets, second element is the fully ticking tickets.
+         */
+        private Map<T, Pair<LongSet, LongSet>> gatherTickets(String modId) {
+            Set<TicketOwner<T>> owners = ownersByModId.get(modId);
+            if (owners == null)
+                return Collections.emptyMap();
+            Map<T, Pair<LongSet, LongSet>> tickets = new HashMap<>();
+            for (TicketOwner<T> owner : owners) {
+                LongSet ownerChunks = chunks.get(owner);
+                LongSet ownerTickingChunks = tickingChunks.get(owner);
+                tickets.put(owner.owner, new Pair<>(ownerChunks == null ? new LongOpenHashSet() : new LongOpenHashSet(ownerChunks),
+                        ownerTickingChunks == null ? new LongOpenHashSet() : new LongOpenHashSet(ownerTickingChunks)));
+            }
+            return Collections.unmodifiableMap(tickets);
         }
     }
 }
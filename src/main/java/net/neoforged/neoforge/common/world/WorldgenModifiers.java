@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.neoforge.common.world;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import net.minecraft.Util;
+import net.minecraft.core.Holder;
+import net.minecraft.core.HolderSet;
+import net.minecraft.core.Registry;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.levelgen.structure.Structure;
+import net.neoforged.neoforge.registries.holdersets.AndHolderSet;
+import net.neoforged.neoforge.registries.holdersets.AnyHolderSet;
+import net.neoforged.neoforge.registries.holdersets.CompositeHolderSet;
+import net.neoforged.neoforge.registries.holdersets.NotHolderSet;
+import net.neoforged.neoforge.registries.holdersets.OrHolderSet;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Applies the biome and structure modifiers to all biomes and structures when the server starts.
+ * <p>
+ * Before applying anything, the modifiers are bucketed by the elements they may modify: the target holder set of the
+ * {@linkplain BiomeModifiers built-in biome modifiers} is resolved once, so that they are only passed to the biomes they target,
+ * and {@linkplain NoneBiomeModifier no-op modifiers} are dropped. Other modifiers may modify any element and are passed to all of them.
+ * Each element receives its modifiers in the original order.
+ * <p>
+ * The elements are independent of each other, so the elements that only receive built-in modifiers, whose holder sets are vanilla or NeoForge types,
+ * are modified in parallel. Other modifiers may run code that is not thread-safe, so the elements receiving them are modified on the calling thread.
+ * Parallel application can be disabled entirely with the {@code neoforge.parallelWorldgenModifiers} system property.
+ */
+@ApiStatus.Internal
+public final class WorldgenModifiers {
+    private static final boolean PARALLEL = Boolean.parseBoolean(System.getProperty("neoforge.parallelWorldgenModifiers", "true"));
+
+    private WorldgenModifiers() {}
+
+    public static void applyBiomeModifiers(Registry<Biome> biomes, List<BiomeModifier> biomeModifiers) {
+        apply(biomes, biomeModifiers, modifier -> modifier.getClass() == NoneBiomeModifier.class, WorldgenModifiers::isBuiltIn, WorldgenModifiers::getTargetBiomes,
+                (biome, modifiers) -> biome.value().modifiableBiomeInfo().applyBiomeModifiers(biome, modifiers));
+    }
+
+    public static void applyStructureModifiers(Registry<Structure> structures, List<StructureModifier> structureModifiers) {
+        apply(structures, structureModifiers, modifier -> modifier.getClass() == NoneStructureModifier.class, modifier -> false, modifier -> null,
+                (structure, modifiers) -> structure.value().modifiableStructureInfo().applyStructureModifiers(structure, modifiers));
+    }
+
+    /**
+     * {@return the biomes the given modifier may modify, or {@code null} if it may modify any biome}
+     */
+    @Nullable
+    private static HolderSet<Biome> getTargetBiomes(BiomeModifier modifier) {
+        if (modifier instanceof BiomeModifiers.AddFeaturesBiomeModifier addFeatures)
+            return addFeatures.biomes();
+        if (modifier instanceof BiomeModifiers.RemoveFeaturesBiomeModifier removeFeatures)
+            return removeFeatures.biomes();
+        if (modifier instanceof BiomeModifiers.AddSpawnsBiomeModifier addSpawns)
+            return addSpawns.biomes();
+        if (modifier instanceof BiomeModifiers.RemoveSpawnsBiomeModifier removeSpawns)
+            return removeSpawns.biomes();
+        return null;
+    }
+
+    /**
+     * {@return whether the given modifier only runs vanilla and NeoForge code, and can therefore be applied off the calling thread}
+     */
+    private static boolean isBuiltIn(BiomeModifier modifier) {
+        if (modifier instanceof BiomeModifiers.AddFeaturesBiomeModifier addFeatures)
+            return isBuiltIn(addFeatures.biomes()) && isBuiltIn(addFeatures.features());
+        if (modifier instanceof BiomeModifiers.RemoveFeaturesBiomeModifier removeFeatures)
+            return isBuiltIn(removeFeatures.biomes()) && isBuiltIn(removeFeatures.features());
+        if (modifier instanceof BiomeModifiers.AddSpawnsBiomeModifier addSpawns)
+            return isBuiltIn(addSpawns.biomes());
+        if (modifier instanceof BiomeModifiers.RemoveSpawnsBiomeModifier removeSpawns)
+            return isBuiltIn(removeSpawns.biomes()) && isBuiltIn(removeSpawns.entityTypes());
+        return false;
+    }
+
+    private static boolean isBuiltIn(HolderSet<?> holderSet) {
+        Class<?> type = holderSet.getClass();
+        if (type == HolderSet.Direct.class || type == HolderSet.Named.class || type == AnyHolderSet.class)
+            return true;
+        if (type == AndHolderSet.class || type == OrHolderSet.class)
+            return ((CompositeHolderSet<?>) holderSet).getComponents().stream().allMatch(WorldgenModifiers::isBuiltIn);
+        if (type == NotHolderSet.class)
+            return isBuiltIn(((NotHolderSet<?>) holderSet).value());
+        return false;
+    }
+
+    private static <T, M> void apply(Registry<T> registry, List<M> modifiers, Predicate<M> isNoop, Predicate<M> isBuiltIn, Function<M, HolderSet<T>> targetsGetter, BiConsumer<Holder.Reference<T>, List<M>> applier) {
+        List<Holder.Reference<T>> elements = registry.holders().toList();
+        Reference2IntMap<T> indices = new Reference2IntOpenHashMap<>(elements.size());
+        indices.defaultReturnValue(-1);
+        List<List<M>> plans = new ArrayList<>(elements.size());
+        for (int i = 0; i < elements.size(); i++) {
+            indices.put(elements.get(i).value(), i);
+            plans.add(new ArrayList<>());
+        }
+
+        BitSet targeted = new BitSet(elements.size());
+        for (M modifier : modifiers) {
+            if (isNoop.test(modifier))
+                continue;
+            HolderSet<T> targets = targetsGetter.apply(modifier);
+            if (targets == null) {
+                plans.forEach(plan -> plan.add(modifier));
+                continue;
+            }
+            // Composite holder sets may list an element more than once, so collect the targets before adding the modifier to their plans
+            targeted.clear();
+            for (Holder<T> target : targets) {
+                int index = indices.getInt(target.value());
+                if (index != -1)
+                    targeted.set(index);
+            }
+            for (int i = targeted.nextSetBit(0); i >= 0; i = targeted.nextSetBit(i + 1))
+                plans.get(i).add(modifier);
+        }
+
+        if (!PARALLEL) {
+            for (int i = 0; i < elements.size(); i++)
+                applier.accept(elements.get(i), plans.get(i));
+            return;
+        }
+        List<CompletableFuture<?>> futures = new ArrayList<>(elements.size());
+        BitSet sequential = new BitSet(elements.size());
+        for (int i = 0; i < elements.size(); i++) {
+            Holder.Reference<T> element = elements.get(i);
+            List<M> plan = plans.get(i);
+            if (plan.stream().allMatch(isBuiltIn))
+                futures.add(CompletableFuture.runAsync(() -> applier.accept(element, plan), Util.backgroundExecutor()));
+            else
+                sequential.set(i);
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            throw e;
+        }
+        for (int i = sequential.nextSetBit(0); i >= 0; i = sequential.nextSetBit(i + 1))
+            applier.accept(elements.get(i), plans.get(i));
+    }
+}
@@ -14,6 +14,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import net.minecraft.DetectedVersion;
@@ -23,6 +26,7 @@ import net.neoforged.bus.api.Event;
 import net.neoforged.fml.ModContainer;
 import net.neoforged.fml.event.IModBusEvent;
 import net.neoforged.neoforge.common.data.ExistingFileHelper;
+import net.neoforged.neoforge.data.loading.DataProviderFingerprints;
 
 public class GatherDataEvent extends Event implements IModBusEvent {
     private final DataGenerator dataGenerator;
@@ -124,15 +128,34 @@ public class GatherDataEvent extends Event implements IModBusEvent {
             return generator;
         }
 
+        /**
+         * Runs all generators, merging the generators that write to the same folder.
+         * <p>
+         * The providers of a generator run on a pool of {@code neoforge.datagen.threads} threads, which defaults to the number of processors.
+         * Providers whose inputs did not change since their last run are skipped when the {@code neoforge.datagen.skipUnchanged} system property is set,
+         * see {@link DataProviderFingerprints}.
+         */
         public void runAll() {
             Map<Path, List<DataGenerator>> paths = generators.stream().collect(Collectors.groupingBy(gen -> gen.getPackOutput().getOutputFolder(), LinkedHashMap::new, Collectors.toList()));
 
-            paths.values().forEach(LamdbaExceptionUtils.rethrowConsumer(lst -> {
-                DataGenerator parent = lst.get(0);
-                for (int x = 1; x < lst.size(); x++)
-                    lst.get(x).getProvidersView().forEach((name, provider) -> parent.addProvider(true, provider));
-                parent.run();
-            }));
+            int threads = Math.max(1, Integer.getInteger("neoforge.datagen.threads", Runtime.getRuntime().availableProcessors()));
+            AtomicInteger threadCount = new AtomicInteger();
+            ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "Datagen Worker-" + threadCount.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                paths.values().forEach(LamdbaExceptionUtils.rethrowConsumer(lst -> {
+                    DataGenerator parent = lst.get(0);
+                    for (int x = 1; x < lst.size(); x++)
+                        lst.get(x).getProvidersView().forEach((name, provider) -> parent.addProvider(true, provider));
+                    DataProviderFingerprints fingerprints = DataProviderFingerprints.ENABLED ? DataProviderFingerprints.load(parent.getPackOutput().getOutputFolder(), inputs) : null;
+                    parent.run(executor, fingerprints);
+                }));
+            } finally {
+                executor.shutdown();
+            }
         }
     }
 }
@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.neoforge.data.loading;
+
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.SetMultimap;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import net.minecraft.SharedConstants;
+import net.minecraft.Util;
+import net.minecraft.data.CachedOutput;
+import net.minecraft.data.DataProvider;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.PackType;
+import net.minecraft.util.GsonHelper;
+import net.neoforged.fml.ModList;
+import net.neoforged.neoforge.common.data.ExistingFileHelper;
+import net.neoforged.neoforgespi.language.IModFileInfo;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Input fingerprints of the data providers of a generator, used to skip providers whose inputs did not change since they last ran.
+ * <p>
+ * The inputs of the providers are the files of all loaded mods, except the files the generator produced itself, and the input folders of the run.
+ * After a provider ran, its fingerprint is stored along with the hashes of the files it produced. On the next run, the provider is skipped
+ * if its fingerprint did not change and all the files it produced are still present and unchanged. The previous files are then passed to the
+ * output of the provider again, so that the data generator keeps them.
+ * <p>
+ * Providers that may depend on other providers can also {@linkplain ExistingFileHelper#trackGenerated track generated files} while they run,
+ * which other providers rely on. The files a provider tracked while running are stored along with its fingerprint,
+ * and tracked again when the provider is skipped. Providers {@linkplain DatagenModLoader#isIndependent(DataProvider) known to be independent}
+ * do not track files, and run concurrently with the other providers, so nothing is recorded for them.
+ * <p>
+ * Enabled with the {@code neoforge.datagen.skipUnchanged} system property.
+ */
+@ApiStatus.Internal
+public final class DataProviderFingerprints {
+    public static final boolean ENABLED = Boolean.getBoolean("neoforge.datagen.skipUnchanged");
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+    private static final String FILE_NAME = "neoforge_fingerprints.json";
+
+    private final Path rootOutputFolder;
+    private final Map<String, Entry> previous;
+    private final Map<String, Entry> current = new ConcurrentHashMap<>();
+    private final HashCode inputFingerprint;
+    @Nullable
+    private final ExistingFileHelper existingFileHelper;
+
+    private DataProviderFingerprints(Path rootOutputFolder, Map<String, Entry> previous, HashCode inputFingerprint, @Nullable ExistingFileHelper existingFileHelper) {
+        this.rootOutputFolder = rootOutputFolder;
+        this.previous = previous;
+        this.inputFingerprint = inputFingerprint;
+        this.existingFileHelper = existingFileHelper;
+    }
+
+    /**
+     * Loads the fingerprints of the previous run of the generator writing to the given folder, and fingerprints the current inputs.
+     */
+    public static DataProviderFingerprints load(Path rootOutputFolder, Collection<Path> inputs) throws IOException {
+        Map<String, Entry> previous = read(getFile(rootOutputFolder));
+        Set<String> generatedFiles = new HashSet<>();
+        previous.values().forEach(entry -> generatedFiles.addAll(entry.outputs().keySet()));
+
+        Hasher hasher = Hashing.sha256().newHasher();
+        hasher.putString(SharedConstants.getCurrentVersion().getId(), StandardCharsets.UTF_8);
+        List<IModFileInfo> modFiles = new ArrayList<>(ModList.get().getModFiles());
+        modFiles.sort(Comparator.comparing(modFile -> modFile.getFile().getFileName()));
+        for (IModFileInfo modFile : modFiles) {
+            hashFiles(hasher, modFile.getFile().getSecureJar().getRootPath(), generatedFiles);
+        }
+        for (Path input : inputs) {
+            hashFiles(hasher, input, Set.of());
+        }
+        return new DataProviderFingerprints(rootOutputFolder, previous, hasher.hash(), DatagenModLoader.getExistingFileHelper());
+    }
+
+    private static void hashFiles(Hasher hasher, Path root, Set<String> excluded) throws IOException {
+        if (!Files.exists(root))
+            return;
+        List<Path> files;
+        try (Stream<Path> stream = Files.walk(root)) {
+            files = stream.filter(Files::isRegularFile).sorted(Comparator.comparing(Path::toString)).toList();
+        }
+        for (Path file : files) {
+            String relative = relativize(root, file);
+            if (excluded.contains(relative))
+                continue;
+            hasher.putString(relative, StandardCharsets.UTF_8);
+            hasher.putBytes(Files.readAllBytes(file));
+        }
+    }
+
+    private static String relativize(Path root, Path file) {
+        return root.relativize(file).toString().replace('\\', '/');
+    }
+
+    private static Path getFile(Path rootOutputFolder) {
+        return rootOutputFolder.resolve(".cache").resolve(FILE_NAME);
+    }
+
+    private String getFingerprint(String providerId) {
+        return Hashing.sha256().newHasher()
+                .putBytes(inputFingerprint.asBytes())
+                .putString(providerId, StandardCharsets.UTF_8)
+                .hash().toString();
+    }
+
+    /**
+     * {@return a provider passing the previous outputs of the given provider to the output again, or {@code null} if the provider must run}
+     */
+    @Nullable
+    public DataProvider reuseOutputs(String providerId) {
+        Entry entry = previous.get(providerId);
+        String fingerprint = getFingerprint(providerId);
+        if (entry == null || !entry.fingerprint().equals(fingerprint))
+            return null;
+        Map<Path, byte[]> contents = new HashMap<>();
+        try {
+            for (Map.Entry<String, String> output : entry.outputs().entrySet()) {
+                Path path = rootOutputFolder.resolve(output.getKey());
+                if (!Files.isRegularFile(path))
+                    return null;
+                byte[] bytes = Files.readAllBytes(path);
+                if (!Hashing.sha1().hashBytes(bytes).toString().equals(output.getValue()))
+                    return null;
+                contents.put(path, bytes);
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Failed to read previous outputs of provider {}", providerId, e);
+            return null;
+        }
+        // Tracked right away rather than when the returned provider runs, since it does not wait for the providers added before it
+        if (existingFileHelper != null)
+            entry.generated().forEach(existingFileHelper::restoreTrackedGenerated);
+        return new DataProvider() {
+            @Override
+            public CompletableFuture<?> run(CachedOutput output) {
+                return CompletableFuture.runAsync(() -> {
+                    try {
+                        for (Map.Entry<Path, byte[]> content : contents.entrySet()) {
+                            output.writeIfNeeded(content.getKey(), content.getValue(), Hashing.sha1().hashBytes(content.getValue()));
+                        }
+                    } catch (IOException e) {
+                        throw new RuntimeException("Failed to reuse previous outputs of provider " + providerId, e);
+                    }
+                    current.put(providerId, entry);
+                }, Util.backgroundExecutor());
+            }
+
+            @Override
+            public String getName() {
+                return providerId;
+            }
+        };
+    }
+
+    /**
+     * {@return a provider running the given provider and recording its outputs}
+     */
+    public DataProvider recording(String providerId, DataProvider provider) {
+        return new DataProvider() {
+            @Override
+            public CompletableFuture<?> run(CachedOutput output) {
+                Map<String, String> outputs = new ConcurrentHashMap<>();
+                CachedOutput recordingOutput = (path, bytes, hash) -> {
+                    output.writeIfNeeded(path, bytes, hash);
+                    outputs.put(relativize(rootOutputFolder, path), hash.toString());
+                };
+                boolean tracksGenerated = existingFileHelper != null && !DatagenModLoader.isIndependent(provider);
+                SetMultimap<PackType, ResourceLocation> trackedBefore = tracksGenerated ? existingFileHelper.getTrackedGenerated() : ImmutableSetMultimap.of();
+                return provider.run(recordingOutput).thenRun(() -> {
+                    ImmutableSetMultimap.Builder<PackType, ResourceLocation> generated = ImmutableSetMultimap.builder();
+                    if (tracksGenerated) {
+                        existingFileHelper.getTrackedGenerated().forEach((packType, location) -> {
+                            if (!trackedBefore.containsEntry(packType, location))
+                                generated.put(packType, location);
+                        });
+                    }
+                    current.put(providerId, new Entry(getFingerprint(providerId), new TreeMap<>(outputs), generated.build()));
+                });
+            }
+
+            @Override
+            public String getName() {
+                return provider.getName();
+            }
+        };
+    }
+
+    /**
+     * Writes the fingerprints of the providers that ran or were skipped, keeping the previous ones of the other providers.
+     */
+    public void save() throws IOException {
+        Map<String, Entry> entries = new TreeMap<>(previous);
+        entries.putAll(current);
+        JsonObject json = new JsonObject();
+        entries.forEach((providerId, entry) -> {
+            JsonObject entryJson = new JsonObject();
+            entryJson.addProperty("fingerprint", entry.fingerprint());
+            JsonObject outputsJson = new JsonObject();
+            entry.outputs().forEach(outputsJson::addProperty);
+            entryJson.add("outputs", outputsJson);
+            JsonObject generatedJson = new JsonObject();
+            entry.generated().asMap().forEach((packType, locations) -> {
+                JsonArray locationsJson = new JsonArray();
+                locations.stream().map(ResourceLocation::toString).sorted().forEach(locationsJson::add);
+                generatedJson.add(packType.name(), locationsJson);
+            });
+            entryJson.add("generated", generatedJson);
+            json.add(providerId, entryJson);
+        });
+        Path file = getFile(rootOutputFolder);
+        Files.createDirectories(file.getParent());
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            GSON.toJson(json, writer);
+        }
+    }
+
+    private static Map<String, Entry> read(Path file) {
+        Map<String, Entry> entries = new HashMap<>();
+        if (!Files.isRegularFile(file))
+            return entries;
+        try (Reader reader = Files.newBufferedReader(file)) {
+            JsonObject json = GsonHelper.parse(reader);
+            for (Map.Entry<String, JsonElement> providerEntry : json.entrySet()) {
+                JsonObject entryJson = providerEntry.getValue().getAsJsonObject();
+                Map<String, String> outputs = new TreeMap<>();
+                GsonHelper.getAsJsonObject(entryJson, "outputs").entrySet().forEach(output -> outputs.put(output.getKey(), output.getValue().getAsString()));
+                ImmutableSetMultimap.Builder<PackType, ResourceLocation> generated = ImmutableSetMultimap.builder();
+                for (Map.Entry<String, JsonElement> generatedEntry : GsonHelper.getAsJsonObject(entryJson, "generated").entrySet()) {
+                    PackType packType = PackType.valueOf(generatedEntry.getKey());
+                    generatedEntry.getValue().getAsJsonArray().forEach(location -> generated.put(packType, new ResourceLocation(location.getAsString())));
+                }
+                entries.put(providerEntry.getKey(), new Entry(GsonHelper.getAsString(entryJson, "fingerprint"), outputs, generated.build()));
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Failed to read data provider fingerprints from {}, all providers will run", file, e);
+            entries.clear();
+        }
+        return entries;
+    }
+
+    private record Entry(String fingerprint, Map<String, String> outputs, SetMultimap<PackType, ResourceLocation> generated) {}
+}
@@ -12,11 +12,18 @@ import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import net.minecraft.Util;
 import net.minecraft.core.HolderLookup;
+import net.minecraft.data.DataProvider;
+import net.minecraft.data.loot.LootTableProvider;
+import net.minecraft.data.metadata.PackMetadataGenerator;
+import net.minecraft.data.recipes.RecipeProvider;
+import net.minecraft.data.registries.RegistriesDatapackGenerator;
 import net.minecraft.data.registries.VanillaRegistries;
 import net.minecraft.server.Bootstrap;
 import net.neoforged.fml.ModLoader;
 import net.neoforged.fml.ModWorkManager;
 import net.neoforged.neoforge.common.data.ExistingFileHelper;
+import net.neoforged.neoforge.common.data.GlobalLootModifierProvider;
+import net.neoforged.neoforge.common.data.LanguageProvider;
 import net.neoforged.neoforge.data.event.GatherDataEvent;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -31,6 +38,26 @@ public class DatagenModLoader {
         return runningDataGen;
     }
 
+    static ExistingFileHelper getExistingFileHelper() {
+        return existingFileHelper;
+    }
+
+    /**
+     * {@return {@code true} if the given provider is known not to depend on other providers running before it}
+     * Other providers may rely on files tracked as generated in the {@link ExistingFileHelper} by the providers added before them,
+     * such as item models referencing block models, so they run one after another in the order they were added.
+     * Providers that check whether files exist or track the files they generate, such as sound definitions, particle descriptions
+     * and sprite sources, are therefore not independent either.
+     */
+    public static boolean isIndependent(DataProvider provider) {
+        return provider instanceof LanguageProvider
+                || provider instanceof RecipeProvider
+                || provider instanceof LootTableProvider
+                || provider instanceof GlobalLootModifierProvider
+                || provider instanceof RegistriesDatapackGenerator
+                || provider instanceof PackMetadataGenerator;
+    }
+
     public static void begin(final Set<String> mods, final Path path, final Collection<Path> inputs, Collection<Path> existingPacks,
             Set<String> existingMods, final boolean serverGenerators, final boolean clientGenerators, final boolean devToolGenerators, final boolean reportsGenerator,
             final boolean structureValidator, final boolean flat, final String assetIndex, final File assetsDir) {
@@ -171,6 +171,34 @@ public class EventHooks {
         return event;
     }
 
+    /**
+     * Fires a {@link NeighborNotifyEvent} for all sides except the given one.
+     * The event is only created if it has listeners, since it is fired for every neighbor update.
+     *
+     * @param excludedSide the side that is not notified, or {@code null} to notify all sides
+     * @return {@code true} if the event was canceled
+     */
+    public static boolean onNeighborNotify(Level level, BlockPos pos, @Nullable Direction excludedSide) {
+        if (!EventListenerCache.hasListeners(NeighborNotifyEvent.class))
+            return false;
+        EnumSet<Direction> notifiedSides = EnumSet.allOf(Direction.class);
+        if (excludedSide != null)
+            notifiedSides.remove(excludedSide);
+        return onNeighborNotify(level, pos, level.getBlockState(pos), notifiedSides, false).isCanceled();
+    }
+
+    /**
+     * Fires a {@link NeighborNotifyEvent} for a single side.
+     * The event is only created if it has listeners, since it is fired for every neighbor update.
+     *
+     * @return {@code true} if the event was canceled
+     */
+    public static boolean onNeighborNotifySide(Level level, BlockPos pos, Direction side) {
+        if (!EventListenerCache.hasListeners(NeighborNotifyEvent.class))
+            return false;
+        return onNeighborNotify(level, pos, level.getBlockState(pos), EnumSet.of(side), false).isCanceled();
+    }
+
     public static boolean doPlayerHarvestCheck(Player player, BlockState state, boolean success) {
         PlayerEvent.HarvestCheck event = new PlayerEvent.HarvestCheck(player, state, success);
         NeoForge.EVENT_BUS.post(event);
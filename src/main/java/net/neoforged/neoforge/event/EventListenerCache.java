@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.neoforge.event;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import net.neoforged.bus.api.Event;
+import net.neoforged.bus.api.EventPriority;
+import net.neoforged.neoforge.common.NeoForge;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Tells whether an event type has any listener on the {@link NeoForge#EVENT_BUS}, so that hooks firing events at a high rate
+ * can skip creating and posting events that nobody listens to.
+ * <p>
+ * The answer is cached per event class, together with the listener array of the event bus it was computed from.
+ * The bus rebuilds that array whenever listeners are registered or unregistered, which invalidates the cached answer.
+ * <p>
+ * The listener arrays are not part of the event bus API. If they cannot be accessed, every event type is assumed to have listeners.
+ */
+@ApiStatus.Internal
+public final class EventListenerCache {
+    private static final Logger LOGGER = LogManager.getLogger();
+    @Nullable
+    private static final MethodHandle GET_LISTENER_LIST;
+    @Nullable
+    private static final MethodHandle GET_LISTENERS;
+    private static final int BUS_ID;
+
+    static {
+        MethodHandle getListenerList = null;
+        MethodHandle getListeners = null;
+        int busId = -1;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            Class<?> helperClass = Class.forName("net.neoforged.bus.EventListenerHelper");
+            Method getListenerListMethod = helperClass.getDeclaredMethod("getListenerList", Class.class);
+            Class<?> listenerListClass = getListenerListMethod.getReturnType();
+            Method getListenersMethod = listenerListClass.getDeclaredMethod("getListeners", int.class);
+            Field busIdField = NeoForge.EVENT_BUS.getClass().getDeclaredField("busID");
+            if (getListenerListMethod.trySetAccessible() && getListenersMethod.trySetAccessible() && busIdField.trySetAccessible()) {
+                getListenerList = lookup.unreflect(getListenerListMethod).asType(MethodType.methodType(Object.class, Class.class));
+                getListeners = lookup.unreflect(getListenersMethod).asType(MethodType.methodType(Object[].class, Object.class, int.class));
+                busId = busIdField.getInt(NeoForge.EVENT_BUS);
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOGGER.debug("Event listener lookup is unavailable, all events will be posted", e);
+        }
+        GET_LISTENER_LIST = getListenerList;
+        GET_LISTENERS = getListeners;
+        BUS_ID = busId;
+    }
+
+    private static final ClassValue<Entry> ENTRIES = new ClassValue<>() {
+        @Override
+        protected Entry computeValue(Class<?> type) {
+            return new Entry(type);
+        }
+    };
+
+    private EventListenerCache() {}
+
+    /**
+     * {@return {@code false} if events of the given type have no listener on the {@link NeoForge#EVENT_BUS}, {@code true} if they have some or if it is unknown}
+     */
+    public static boolean hasListeners(Class<? extends Event> eventType) {
+        if (GET_LISTENERS == null)
+            return true;
+        return ENTRIES.get(eventType).hasListeners();
+    }
+
+    private static final class Entry {
+        private final Class<?> eventType;
+        @Nullable
+        private volatile Object listenerList;
+        @Nullable
+        private volatile State state;
+
+        private Entry(Class<?> eventType) {
+            this.eventType = eventType;
+        }
+
+        private boolean hasListeners() {
+            try {
+                Object list = listenerList;
+                if (list == null) {
+                    list = GET_LISTENER_LIST.invokeExact(eventType);
+                    listenerList = list;
+                }
+                Object[] listeners = (Object[]) GET_LISTENERS.invokeExact(list, BUS_ID);
+                State current = state;
+                if (current == null || current.listeners != listeners) {
+                    current = new State(listeners, containsListener(listeners));
+                    state = current;
+                }
+                return current.hasListeners;
+            } catch (Throwable t) {
+                return true;
+            }
+        }
+
+        private static boolean containsListener(Object[] listeners) {
+            // The listener array also contains the priorities, which are markers and not actual listeners
+            for (Object listener : listeners) {
+                if (!(listener instanceof EventPriority))
+                    return true;
+            }
+            return false;
+        }
+    }
+
+    private record State(Object[] listeners, boolean hasListeners) {}
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.neoforge.fluids;
+
+import java.util.Arrays;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.ChunkStatus;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.phys.Vec3;
+import net.neoforged.neoforge.common.NeoForgeMod;
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * The height of each {@link FluidType} an entity is in, updated every tick by {@link Entity#updateFluidHeightAndDoFluidPushing()}.
+ * <p>
+ * Entities are rarely in more than one or two fluid types at once, so the heights are kept in small arrays that are reused from tick to tick
+ * and scanned by identity, which avoids allocating while entities update their fluid state.
+ * <p>
+ * This replaces the {@code Object2DoubleMap<FluidType>} previously held by {@code Entity#forgeFluidTypeHeight}.
+ * Use {@link Entity#getFluidTypeHeights()} to access the heights of an entity.
+ */
+public final class FluidTypeHeights {
+    private static final int INITIAL_CAPACITY = 2;
+
+    private FluidType[] types = new FluidType[INITIAL_CAPACITY];
+    private double[] heights = new double[INITIAL_CAPACITY];
+    private int size;
+
+    // State of the scan of the blocks around the entity, kept apart from the heights so that a scan only replaces the heights of the types it found
+    private FluidType[] scannedTypes = new FluidType[INITIAL_CAPACITY];
+    private double[] scannedHeights = new double[INITIAL_CAPACITY];
+    private double[] scannedFlows = new double[INITIAL_CAPACITY * 3];
+    private int[] scannedFlowCounts = new int[INITIAL_CAPACITY];
+    private int scannedSize;
+
+    /**
+     * {@return the height of the given fluid type, or {@code 0} if the entity is not in it}
+     */
+    public double get(FluidType type) {
+        int index = indexOf(this.types, this.size, type);
+        return index == -1 ? 0.0D : this.heights[index];
+    }
+
+    /**
+     * Sets the height of the given fluid type.
+     */
+    public void set(FluidType type, double height) {
+        int index = indexOf(this.types, this.size, type);
+        if (index == -1) {
+            if (this.size == this.types.length) {
+                this.types = Arrays.copyOf(this.types, this.size * 2);
+                this.heights = Arrays.copyOf(this.heights, this.size * 2);
+            }
+            index = this.size++;
+            this.types[index] = type;
+        }
+        this.heights[index] = height;
+    }
+
+    /**
+     * Removes the heights of all fluid types.
+     */
+    public void clear() {
+        this.size = 0;
+    }
+
+    /**
+     * {@return the number of fluid types the entity is in}
+     */
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * {@return the fluid type at the given index, between {@code 0} and {@link #size()}}
+     */
+    public FluidType getType(int index) {
+        return this.types[index];
+    }
+
+    /**
+     * {@return the height of the fluid type at the given index, between {@code 0} and {@link #size()}}
+     */
+    public double getHeight(int index) {
+        return this.heights[index];
+    }
+
+    /**
+     * {@return {@code true} if the predicate matches any fluid type, or every fluid type if {@code forAllTypes} is {@code true}}
+     */
+    public boolean test(HeightPredicate predicate, boolean forAllTypes) {
+        for (int i = 0; i < this.size; i++) {
+            if (predicate.test(this.types[i], this.heights[i]) != forAllTypes)
+                return !forAllTypes;
+        }
+        return forAllTypes;
+    }
+
+    /**
+     * {@return the fluid type with the highest height, or {@link NeoForgeMod#EMPTY_TYPE the empty type} if the entity is in no fluid type}
+     */
+    public FluidType getMaxHeightType() {
+        int max = -1;
+        for (int i = 0; i < this.size; i++) {
+            if (max == -1 || this.heights[i] > this.heights[max])
+                max = i;
+        }
+        return max == -1 ? NeoForgeMod.EMPTY_TYPE.get() : this.types[max];
+    }
+
+    /**
+     * Starts a scan of the fluids around the entity.
+     */
+    @ApiStatus.Internal
+    public void startScan() {
+        this.scannedSize = 0;
+    }
+
+    /**
+     * Records that the entity is in the given fluid type up to the given height, keeping the highest height seen for the type during the scan.
+     *
+     * @return the slot of the fluid type in the scan
+     */
+    @ApiStatus.Internal
+    public int scan(FluidType type, double height) {
+        int slot = indexOf(this.scannedTypes, this.scannedSize, type);
+        if (slot == -1) {
+            if (this.scannedSize == this.scannedTypes.length) {
+                int capacity = this.scannedSize * 2;
+                this.scannedTypes = Arrays.copyOf(this.scannedTypes, capacity);
+                this.scannedHeights = Arrays.copyOf(this.scannedHeights, capacity);
+                this.scannedFlows = Arrays.copyOf(this.scannedFlows, capacity * 3);
+                this.scannedFlowCounts = Arrays.copyOf(this.scannedFlowCounts, capacity);
+            }
+            slot = this.scannedSize++;
+            this.scannedTypes[slot] = type;
+            this.scannedHeights[slot] = height;
+            this.scannedFlows[slot * 3] = 0.0D;
+            this.scannedFlows[slot * 3 + 1] = 0.0D;
+            this.scannedFlows[slot * 3 + 2] = 0.0D;
+            this.scannedFlowCounts[slot] = 0;
+        } else {
+            this.scannedHeights[slot] = Math.max(height, this.scannedHeights[slot]);
+        }
+        return slot;
+    }
+
+    /**
+     * Adds the flow of a fluid block to the flow pushing the entity in the fluid type of the given slot.
+     */
+    @ApiStatus.Internal
+    public void addScannedFlow(int slot, Vec3 flow) {
+        this.scannedFlows[slot * 3] += flow.x;
+        this.scannedFlows[slot * 3 + 1] += flow.y;
+        this.scannedFlows[slot * 3 + 2] += flow.z;
+        this.scannedFlowCounts[slot]++;
+    }
+
+    @ApiStatus.Internal
+    public int getScannedSize() {
+        return this.scannedSize;
+    }
+
+    @ApiStatus.Internal
+    public FluidType getScannedType(int slot) {
+        return this.scannedTypes[slot];
+    }
+
+    @ApiStatus.Internal
+    public double getScannedHeight(int slot) {
+        return this.scannedHeights[slot];
+    }
+
+    /**
+     * {@return the sum of the flows added to the given slot}
+     */
+    @ApiStatus.Internal
+    public Vec3 getScannedFlow(int slot) {
+        if (this.scannedFlowCounts[slot] == 0)
+            return Vec3.ZERO;
+        return new Vec3(this.scannedFlows[slot * 3], this.scannedFlows[slot * 3 + 1], this.scannedFlows[slot * 3 + 2]);
+    }
+
+    @ApiStatus.Internal
+    public int getScannedFlowCount(int slot) {
+        return this.scannedFlowCounts[slot];
+    }
+
+    /**
+     * A predicate on a fluid type and its height, which takes the height as a primitive.
+     */
+    @FunctionalInterface
+    public interface HeightPredicate {
+        boolean test(FluidType type, double height);
+    }
+
+    private static int indexOf(FluidType[] types, int size, FluidType type) {
+        for (int i = 0; i < size; i++) {
+            if (types[i] == type)
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Checks whether any chunk section overlapping the given block range may contain a fluid, using the palettes of the sections.
+     * Sections of chunks that are not loaded are assumed to contain fluids.
+     *
+     * @return {@code false} if there is no fluid in the given block range, {@code true} if there may be some
+     */
+    @ApiStatus.Internal
+    public static boolean mayContainFluid(Level level, int minX, int minY, int minZ, int maxXExclusive, int maxYExclusive, int maxZExclusive) {
+        int minSectionY = Math.max(SectionPos.blockToSectionCoord(minY), level.getMinSection());
+        int maxSectionY = Math.min(SectionPos.blockToSectionCoord(maxYExclusive - 1), level.getMaxSection() - 1);
+        if (minSectionY > maxSectionY)
+            return false;
+        for (int sectionX = SectionPos.blockToSectionCoord(minX); sectionX <= SectionPos.blockToSectionCoord(maxXExclusive - 1); sectionX++) {
+            for (int sectionZ = SectionPos.blockToSectionCoord(minZ); sectionZ <= SectionPos.blockToSectionCoord(maxZExclusive - 1); sectionZ++) {
+                ChunkAccess chunk = level.getChunk(sectionX, sectionZ, ChunkStatus.FULL, false);
+                if (chunk == null)
+                    return true;
+                for (int sectionY = minSectionY; sectionY <= maxSectionY; sectionY++) {
+                    LevelChunkSection section = chunk.getSection(chunk.getSectionIndexFromSectionY(sectionY));
+                    if (!section.hasOnlyAir() && section.maybeHas(FluidTypeHeights::hasFluid))
+                        return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasFluid(BlockState state) {
+        return !state.getFluidState().isEmpty();
+    }
+}
@@ -10,7 +10,7 @@ import net.minecraft.nbt.CompoundTag;
 import net.minecraft.world.item.ItemStack;
 import net.neoforged.neoforge.common.capabilities.Capabilities;
 import net.neoforged.neoforge.common.capabilities.Capability;
-import net.neoforged.neoforge.common.capabilities.ICapabilityProvider;
+import net.neoforged.neoforge.common.capabilities.IStableCapabilityProvider;
 import net.neoforged.neoforge.common.util.LazyOptional;
 import net.neoforged.neoforge.fluids.FluidStack;
 import net.neoforged.neoforge.fluids.capability.IFluidHandlerItem;
@@ -25,8 +25,10 @@ import org.jetbrains.annotations.Nullable;
  *
  * Additional examples are provided to enable consumable fluid containers (see {@link Consumable}),
  * fluid containers with different empty and full items (see {@link SwapEmpty},
+ *
+ * Its capabilities are {@linkplain IStableCapabilityProvider stable}, so subclasses that override {@link #getCapability} must keep them stable.
  */
-public class FluidHandlerItemStack implements IFluidHandlerItem, ICapabilityProvider {
+public class FluidHandlerItemStack implements IFluidHandlerItem, IStableCapabilityProvider {
     public static final String FLUID_NBT_KEY = "Fluid";
 
     private final LazyOptional<IFluidHandlerItem> holder = LazyOptional.of(() -> this);
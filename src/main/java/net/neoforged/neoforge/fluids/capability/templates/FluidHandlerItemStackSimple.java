@@ -10,7 +10,7 @@ import net.minecraft.nbt.CompoundTag;
 import net.minecraft.world.item.ItemStack;
 import net.neoforged.neoforge.common.capabilities.Capabilities;
 import net.neoforged.neoforge.common.capabilities.Capability;
-import net.neoforged.neoforge.common.capabilities.ICapabilityProvider;
+import net.neoforged.neoforge.common.capabilities.IStableCapabilityProvider;
 import net.neoforged.neoforge.common.util.LazyOptional;
 import net.neoforged.neoforge.fluids.FluidStack;
 import net.neoforged.neoforge.fluids.capability.IFluidHandlerItem;
@@ -22,8 +22,10 @@ import org.jetbrains.annotations.Nullable;
  * Data is stored directly in the vanilla NBT, in the same way as the old ItemFluidContainer.
  *
  * This implementation only allows item containers to be fully filled or emptied, similar to vanilla buckets.
+ *
+ * Its capabilities are {@linkplain IStableCapabilityProvider stable}, so subclasses that override {@link #getCapability} must keep them stable.
  */
-public class FluidHandlerItemStackSimple implements IFluidHandlerItem, ICapabilityProvider {
+public class FluidHandlerItemStackSimple implements IFluidHandlerItem, IStableCapabilityProvider {
     public static final String FLUID_NBT_KEY = "Fluid";
 
     private final LazyOptional<IFluidHandlerItem> holder = LazyOptional.of(() -> this);
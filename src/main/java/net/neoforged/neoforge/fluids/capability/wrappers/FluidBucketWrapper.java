@@ -15,7 +15,7 @@ import net.minecraft.world.level.material.Fluids;
 import net.neoforged.neoforge.common.NeoForgeMod;
 import net.neoforged.neoforge.common.capabilities.Capabilities;
 import net.neoforged.neoforge.common.capabilities.Capability;
-import net.neoforged.neoforge.common.capabilities.ICapabilityProvider;
+import net.neoforged.neoforge.common.capabilities.IStableCapabilityProvider;
 import net.neoforged.neoforge.common.util.LazyOptional;
 import net.neoforged.neoforge.fluids.FluidStack;
 import net.neoforged.neoforge.fluids.FluidType;
@@ -27,8 +27,10 @@ import org.jetbrains.annotations.Nullable;
 /**
  * Wrapper for vanilla and forge buckets.
  * Swaps between empty bucket and filled bucket of the correct type.
+ *
+ * Its capabilities are {@linkplain IStableCapabilityProvider stable}, so subclasses that override {@link #getCapability} must keep them stable.
  */
-public class FluidBucketWrapper implements IFluidHandlerItem, ICapabilityProvider {
+public class FluidBucketWrapper implements IFluidHandlerItem, IStableCapabilityProvider {
     private final LazyOptional<IFluidHandlerItem> holder = LazyOptional.of(() -> this);
 
     @NotNull
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.neoforge.items;
+
+import net.minecraft.world.item.ItemStack;
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * Checks whether subclasses of an item handler implementation keep its per-slot methods,
+ * in which case the bulk transfer methods of the implementation may access its contents directly instead of going through them.
+ */
+@ApiStatus.Internal
+public final class DirectBulkTransfer {
+    private final Class<?> implementation;
+    private final ClassValue<Boolean> supported = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("getStackInSlot", int.class).getDeclaringClass() == implementation
+                        && type.getMethod("insertItem", int.class, ItemStack.class, boolean.class).getDeclaringClass() == implementation
+                        && type.getMethod("extractItem", int.class, int.class, boolean.class).getDeclaringClass() == implementation;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+
+    /**
+     * @param implementation the item handler implementation whose bulk transfer methods access its contents directly
+     */
+    public DirectBulkTransfer(Class<? extends IItemHandler> implementation) {
+        this.implementation = implementation;
+    }
+
+    /**
+     * {@return {@code true} if the given subclass of the implementation does not override any of its per-slot methods}
+     */
+    public boolean isSupported(Class<?> type) {
+        return supported.get(type);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.neoforge.items;
+
+import java.util.Optional;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.neoforged.neoforge.common.capabilities.Capabilities;
+import net.neoforged.neoforge.common.capabilities.IStableCapabilityProvider;
+import net.neoforged.neoforge.common.util.LazyOptional;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * Caches the {@link IItemHandler item handlers} of the block entities next to a hopper,
+ * so that {@link VanillaInventoryCodeHooks} does not have to look them up every time the hopper transfers an item.
+ * <p>
+ * Only the handlers of block entities that are {@link IStableCapabilityProvider stable capability providers} are cached,
+ * since other block entities may return a new {@link LazyOptional} on every call or switch handlers without invalidating the previous one.
+ * The handlers of other block entities are looked up on every transfer.
+ * <p>
+ * A cached handler is dropped as soon as its {@link LazyOptional} is invalidated, or when the block entity providing it is removed.
+ * Both happen whenever the neighboring block changes, since removing a block entity invalidates its capabilities.
+ * Missing handlers are not cached: looking them up only costs a block state query.
+ */
+@ApiStatus.Internal
+public final class HopperItemHandlerCache {
+    private final Entry[] entries = new Entry[Direction.values().length];
+
+    /**
+     * Returns the item handler of the block entity on the given face of a hopper, looking it up if it is not cached.
+     *
+     * @param level  the level of the hopper
+     * @param pos    the position of the hopper
+     * @param facing the face of the hopper to look at
+     * @return the item handler and the block entity that provides it, or an empty optional if there is none
+     */
+    public Optional<Pair<IItemHandler, Object>> getItemHandler(Level level, BlockPos pos, Direction facing) {
+        Entry entry = entries[facing.ordinal()];
+        if (entry != null && !entry.blockEntity.isRemoved()) {
+            return entry.result;
+        }
+        entries[facing.ordinal()] = null;
+
+        BlockPos neighborPos = pos.relative(facing);
+        if (!level.getBlockState(neighborPos).hasBlockEntity()) {
+            return Optional.empty();
+        }
+        BlockEntity blockEntity = level.getBlockEntity(neighborPos);
+        if (blockEntity == null) {
+            return Optional.empty();
+        }
+        LazyOptional<IItemHandler> optional = blockEntity.getCapability(Capabilities.ITEM_HANDLER, facing.getOpposite());
+        IItemHandler handler = optional.resolve().orElse(null);
+        if (handler == null) {
+            return Optional.empty();
+        }
+
+        Optional<Pair<IItemHandler, Object>> result = Optional.of(ImmutablePair.<IItemHandler, Object>of(handler, blockEntity));
+        if (!(blockEntity instanceof IStableCapabilityProvider)) {
+            return result;
+        }
+
+        Entry newEntry = new Entry(blockEntity, result);
+        entries[facing.ordinal()] = newEntry;
+        optional.addListener(invalidated -> invalidate(facing, newEntry));
+        return newEntry.result;
+    }
+
+    private void invalidate(Direction facing, Entry entry) {
+        if (entries[facing.ordinal()] == entry) {
+            entries[facing.ordinal()] = null;
+        }
+    }
+
+    private record Entry(BlockEntity blockEntity, Optional<Pair<IItemHandler, Object>> result) {}
+}
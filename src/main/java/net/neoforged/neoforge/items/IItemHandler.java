@@ -5,6 +5,7 @@
 
 package net.neoforged.neoforge.items;
 
+import java.util.function.Predicate;
 import net.minecraft.world.Container;
 import net.minecraft.world.item.ItemStack;
 import net.neoforged.neoforge.common.capabilities.AutoRegisterCapability;
@@ -105,4 +106,100 @@ public interface IItemHandler {
      *         false if the slot can never insert the ItemStack in any situation.
      */
     boolean isItemValid(int slot, @NotNull ItemStack stack);
+
+    /**
+     * <p>
+     * Inserts an ItemStack into the whole inventory and returns the remainder, filling up already present stacks first.
+     * This is equivalent to the behaviour of a player picking up an item.
+     * The ItemStack <em>should not</em> be modified in this function!
+     * </p>
+     * <p>
+     * The default implementation calls {@link #insertItem(int, ItemStack, boolean)} for every slot.
+     * Implementations that can access their contents directly should override this to move the stack in a single pass.
+     * </p>
+     *
+     * @param stack    ItemStack to insert. This must not be modified by the item handler.
+     * @param simulate If true, the insertion is only simulated
+     * @return The remaining ItemStack that was not inserted (if the entire stack is accepted, then return an empty ItemStack).
+     *         May be the same as the input ItemStack if unchanged, otherwise a new ItemStack.
+     *         The returned ItemStack can be safely modified after.
+     * @see ItemHandlerHelper#insertItemStacked(IItemHandler, ItemStack, boolean)
+     */
+    @NotNull
+    default ItemStack insertItemStacked(@NotNull ItemStack stack, boolean simulate) {
+        if (stack.isEmpty())
+            return stack;
+
+        // not stackable -> just insert into a new slot
+        if (!stack.isStackable()) {
+            return ItemHandlerHelper.insertItem(this, stack, simulate);
+        }
+
+        int sizeInventory = getSlots();
+
+        // go through the inventory and try to fill up already existing items
+        for (int i = 0; i < sizeInventory; i++) {
+            ItemStack slot = getStackInSlot(i);
+            if (ItemHandlerHelper.canItemStacksStackRelaxed(slot, stack)) {
+                stack = insertItem(i, stack, simulate);
+
+                if (stack.isEmpty()) {
+                    return ItemStack.EMPTY;
+                }
+            }
+        }
+
+        // insert remainder into empty slots
+        for (int i = 0; i < sizeInventory; i++) {
+            if (getStackInSlot(i).isEmpty()) {
+                stack = insertItem(i, stack, simulate);
+                if (stack.isEmpty()) {
+                    return ItemStack.EMPTY;
+                }
+            }
+        }
+
+        return stack;
+    }
+
+    /**
+     * <p>
+     * Extracts up to {@code amount} items matching a filter from the whole inventory.
+     * The first stack matching the filter determines which item is extracted; further items are only
+     * taken from stacks that can stack with it.
+     * </p>
+     * <p>
+     * The default implementation calls {@link #extractItem(int, int, boolean)} for every matching slot.
+     * Implementations that can access their contents directly should override this to move the items in a single pass.
+     * </p>
+     *
+     * @param filter   Filter the extracted items must match. It must not modify the tested ItemStacks.
+     * @param amount   Amount to extract (is limited to the extracted item's max stack size)
+     * @param simulate If true, the extraction is only simulated
+     * @return ItemStack extracted from the inventory, must be empty if nothing can be extracted.
+     *         The returned ItemStack can be safely modified after.
+     */
+    @NotNull
+    default ItemStack extractItem(@NotNull Predicate<ItemStack> filter, int amount, boolean simulate) {
+        ItemStack extracted = ItemStack.EMPTY;
+        int sizeInventory = getSlots();
+
+        for (int i = 0; i < sizeInventory && amount > 0; i++) {
+            ItemStack stackInSlot = getStackInSlot(i);
+            if (stackInSlot.isEmpty() || !filter.test(stackInSlot))
+                continue;
+
+            if (extracted.isEmpty()) {
+                extracted = extractItem(i, amount, simulate);
+                if (!extracted.isEmpty())
+                    amount = Math.min(amount, extracted.getMaxStackSize()) - extracted.getCount();
+            } else if (ItemHandlerHelper.canItemStacksStack(extracted, stackInSlot)) {
+                ItemStack more = extractItem(i, amount, simulate);
+                extracted.grow(more.getCount());
+                amount -= more.getCount();
+            }
+        }
+
+        return extracted;
+    }
 }
@@ -82,39 +82,7 @@ public class ItemHandlerHelper {
         if (inventory == null || stack.isEmpty())
             return stack;
 
-        // not stackable -> just insert into a new slot
-        if (!stack.isStackable()) {
-            return insertItem(inventory, stack, simulate);
-        }
-
-        int sizeInventory = inventory.getSlots();
-
-        // go through the inventory and try to fill up already existing items
-        for (int i = 0; i < sizeInventory; i++) {
-            ItemStack slot = inventory.getStackInSlot(i);
-            if (canItemStacksStackRelaxed(slot, stack)) {
-                stack = inventory.insertItem(i, stack, simulate);
-
-                if (stack.isEmpty()) {
-                    break;
-                }
-            }
-        }
-
-        // insert remainder into empty slots
-        if (!stack.isEmpty()) {
-            // find empty slot
-            for (int i = 0; i < sizeInventory; i++) {
-                if (inventory.getStackInSlot(i).isEmpty()) {
-                    stack = inventory.insertItem(i, stack, simulate);
-                    if (stack.isEmpty()) {
-                        break;
-                    }
-                }
-            }
-        }
-
-        return stack;
+        return inventory.insertItemStacked(stack, simulate);
     }
 
     /** giveItemToPlayer without preferred slot */
@@ -5,6 +5,7 @@
 
 package net.neoforged.neoforge.items;
 
+import java.util.function.Predicate;
 import net.minecraft.core.NonNullList;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
@@ -14,6 +15,8 @@ import net.neoforged.neoforge.common.util.INBTSerializable;
 import org.jetbrains.annotations.NotNull;
 
 public class ItemStackHandler implements IItemHandler, IItemHandlerModifiable, INBTSerializable<CompoundTag> {
+    private static final DirectBulkTransfer DIRECT_BULK_TRANSFER = new DirectBulkTransfer(ItemStackHandler.class);
+
     protected NonNullList<ItemStack> stacks;
 
     public ItemStackHandler() {
@@ -123,6 +126,85 @@ public class ItemStackHandler implements IItemHandler, IItemHandlerModifiable, I
         }
     }
 
+    @Override
+    @NotNull
+    public ItemStack insertItemStacked(@NotNull ItemStack stack, boolean simulate) {
+        if (stack.isEmpty() || !DIRECT_BULK_TRANSFER.isSupported(getClass()))
+            return IItemHandlerModifiable.super.insertItemStacked(stack, simulate);
+
+        int remaining = stack.getCount();
+
+        // go through the inventory and try to fill up already existing items
+        for (int i = 0; i < stacks.size() && remaining > 0; i++) {
+            ItemStack existing = this.stacks.get(i);
+            if (existing.isEmpty() || !ItemHandlerHelper.canItemStacksStack(stack, existing) || !isItemValid(i, stack))
+                continue;
+
+            int toInsert = Math.min(remaining, getStackLimit(i, stack) - existing.getCount());
+            if (toInsert <= 0)
+                continue;
+
+            if (!simulate) {
+                existing.grow(toInsert);
+                onContentsChanged(i);
+            }
+            remaining -= toInsert;
+        }
+
+        // insert remainder into empty slots
+        for (int i = 0; i < stacks.size() && remaining > 0; i++) {
+            if (!this.stacks.get(i).isEmpty() || !isItemValid(i, stack))
+                continue;
+
+            int toInsert = Math.min(remaining, getStackLimit(i, stack));
+            if (toInsert <= 0)
+                continue;
+
+            if (!simulate) {
+                this.stacks.set(i, ItemHandlerHelper.copyStackWithSize(stack, toInsert));
+                onContentsChanged(i);
+            }
+            remaining -= toInsert;
+        }
+
+        return remaining == stack.getCount() ? stack : ItemHandlerHelper.copyStackWithSize(stack, remaining);
+    }
+
+    @Override
+    @NotNull
+    public ItemStack extractItem(@NotNull Predicate<ItemStack> filter, int amount, boolean simulate) {
+        if (!DIRECT_BULK_TRANSFER.isSupported(getClass()))
+            return IItemHandlerModifiable.super.extractItem(filter, amount, simulate);
+
+        ItemStack extracted = ItemStack.EMPTY;
+
+        for (int i = 0; i < stacks.size() && amount > 0; i++) {
+            ItemStack existing = this.stacks.get(i);
+            if (existing.isEmpty() || !filter.test(existing))
+                continue;
+
+            int toExtract;
+            if (extracted.isEmpty()) {
+                amount = Math.min(amount, existing.getMaxStackSize());
+                toExtract = Math.min(amount, existing.getCount());
+                extracted = ItemHandlerHelper.copyStackWithSize(existing, toExtract);
+            } else if (ItemHandlerHelper.canItemStacksStack(extracted, existing)) {
+                toExtract = Math.min(amount, existing.getCount());
+                extracted.grow(toExtract);
+            } else {
+                continue;
+            }
+
+            if (!simulate) {
+                this.stacks.set(i, ItemHandlerHelper.copyStackWithSize(existing, existing.getCount() - toExtract));
+                onContentsChanged(i);
+            }
+            amount -= toExtract;
+        }
+
+        return extracted;
+    }
+
     @Override
     public int getSlotLimit(int slot) {
         return 64;
@@ -118,47 +118,30 @@ public class VanillaInventoryCodeHooks {
                 .orElse(false);
     }
 
+    /**
+     * Copied from TileEntityHopper#addItem and TileEntityHopper#tryMoveInItem and added capability support
+     */
     private static ItemStack putStackInInventoryAllSlots(BlockEntity source, Object destination, IItemHandler destInventory, ItemStack stack) {
+        boolean inventoryWasEmpty = destination instanceof HopperBlockEntity && isEmpty(destInventory);
+        int originalSize = stack.getCount();
+
+        // Insert into the first slot that accepts the stack, like vanilla does.
+        // A single non-simulated insertion per slot replaces simulating every slot first.
         for (int slot = 0; slot < destInventory.getSlots() && !stack.isEmpty(); slot++) {
-            stack = insertStack(source, destination, destInventory, stack, slot);
+            stack = destInventory.insertItem(slot, stack, false);
         }
-        return stack;
-    }
-
-    /**
-     * Copied from TileEntityHopper#insertStack and added capability support
-     */
-    private static ItemStack insertStack(BlockEntity source, Object destination, IItemHandler destInventory, ItemStack stack, int slot) {
-        ItemStack itemstack = destInventory.getStackInSlot(slot);
-
-        if (destInventory.insertItem(slot, stack, true).isEmpty()) {
-            boolean insertedItem = false;
-            boolean inventoryWasEmpty = isEmpty(destInventory);
-
-            if (itemstack.isEmpty()) {
-                destInventory.insertItem(slot, stack, false);
-                stack = ItemStack.EMPTY;
-                insertedItem = true;
-            } else if (ItemHandlerHelper.canItemStacksStack(itemstack, stack)) {
-                int originalSize = stack.getCount();
-                stack = destInventory.insertItem(slot, stack, false);
-                insertedItem = originalSize < stack.getCount();
-            }
 
-            if (insertedItem) {
-                if (inventoryWasEmpty && destination instanceof HopperBlockEntity) {
-                    HopperBlockEntity destinationHopper = (HopperBlockEntity) destination;
+        if (inventoryWasEmpty && stack.getCount() < originalSize) {
+            HopperBlockEntity destinationHopper = (HopperBlockEntity) destination;
 
-                    if (!destinationHopper.isOnCustomCooldown()) {
-                        int k = 0;
-                        if (source instanceof HopperBlockEntity) {
-                            if (destinationHopper.getLastUpdateTime() >= ((HopperBlockEntity) source).getLastUpdateTime()) {
-                                k = 1;
-                            }
-                        }
-                        destinationHopper.setCooldown(8 - k);
+            if (!destinationHopper.isOnCustomCooldown()) {
+                int k = 0;
+                if (source instanceof HopperBlockEntity) {
+                    if (destinationHopper.getLastUpdateTime() >= ((HopperBlockEntity) source).getLastUpdateTime()) {
+                        k = 1;
                     }
                 }
+                destinationHopper.setCooldown(8 - k);
             }
         }
 
@@ -166,6 +149,9 @@ public class VanillaInventoryCodeHooks {
     }
 
     private static Optional<Pair<IItemHandler, Object>> getItemHandler(Level level, Hopper hopper, Direction hopperFacing) {
+        if (hopper instanceof HopperBlockEntity hopperBlockEntity) {
+            return hopperBlockEntity.getItemHandlerCache().getItemHandler(level, hopperBlockEntity.getBlockPos(), hopperFacing);
+        }
         double x = hopper.getLevelX() + (double) hopperFacing.getStepX();
         double y = hopper.getLevelY() + (double) hopperFacing.getStepY();
         double z = hopper.getLevelZ() + (double) hopperFacing.getStepZ();
@@ -5,12 +5,16 @@
 
 package net.neoforged.neoforge.items.wrapper;
 
+import java.util.function.Predicate;
 import net.minecraft.world.item.ItemStack;
+import net.neoforged.neoforge.items.DirectBulkTransfer;
 import net.neoforged.neoforge.items.IItemHandlerModifiable;
+import net.neoforged.neoforge.items.ItemHandlerHelper;
 import org.jetbrains.annotations.NotNull;
 
 // combines multiple IItemHandlerModifiable into one interface
 public class CombinedInvWrapper implements IItemHandlerModifiable {
+    private static final DirectBulkTransfer DIRECT_BULK_TRANSFER = new DirectBulkTransfer(CombinedInvWrapper.class);
 
     protected final IItemHandlerModifiable[] itemHandler; // the handlers
     protected final int[] baseIndex; // index-offsets of the different handlers
@@ -94,6 +98,67 @@ public class CombinedInvWrapper implements IItemHandlerModifiable {
         return handler.extractItem(slot, amount, simulate);
     }
 
+    // iterates the handlers directly instead of looking up the handler of every slot
+    @Override
+    @NotNull
+    public ItemStack insertItemStacked(@NotNull ItemStack stack, boolean simulate) {
+        if (stack.isEmpty() || !DIRECT_BULK_TRANSFER.isSupported(getClass()))
+            return IItemHandlerModifiable.super.insertItemStacked(stack, simulate);
+
+        // go through the inventory and try to fill up already existing items (not stackable -> just insert into a new slot)
+        if (stack.isStackable()) {
+            for (IItemHandlerModifiable handler : itemHandler) {
+                for (int i = 0; i < handler.getSlots(); i++) {
+                    if (ItemHandlerHelper.canItemStacksStackRelaxed(handler.getStackInSlot(i), stack)) {
+                        stack = handler.insertItem(i, stack, simulate);
+                        if (stack.isEmpty())
+                            return ItemStack.EMPTY;
+                    }
+                }
+            }
+        }
+
+        // insert remainder into empty slots
+        for (IItemHandlerModifiable handler : itemHandler) {
+            for (int i = 0; i < handler.getSlots(); i++) {
+                if (handler.getStackInSlot(i).isEmpty()) {
+                    stack = handler.insertItem(i, stack, simulate);
+                    if (stack.isEmpty())
+                        return ItemStack.EMPTY;
+                }
+            }
+        }
+
+        return stack;
+    }
+
+    @Override
+    @NotNull
+    public ItemStack extractItem(@NotNull Predicate<ItemStack> filter, int amount, boolean simulate) {
+        if (!DIRECT_BULK_TRANSFER.isSupported(getClass()))
+            return IItemHandlerModifiable.super.extractItem(filter, amount, simulate);
+
+        ItemStack extracted = ItemStack.EMPTY;
+        for (IItemHandlerModifiable handler : itemHandler) {
+            for (int i = 0; i < handler.getSlots() && amount > 0; i++) {
+                ItemStack stackInSlot = handler.getStackInSlot(i);
+                if (stackInSlot.isEmpty() || !filter.test(stackInSlot))
+                    continue;
+
+                if (extracted.isEmpty()) {
+                    extracted = handler.extractItem(i, amount, simulate);
+                    if (!extracted.isEmpty())
+                        amount = Math.min(amount, extracted.getMaxStackSize()) - extracted.getCount();
+                } else if (ItemHandlerHelper.canItemStacksStack(extracted, stackInSlot)) {
+                    ItemStack more = handler.extractItem(i, amount, simulate);
+                    extracted.grow(more.getCount());
+                    amount -= more.getCount();
+                }
+            }
+        }
+        return extracted;
+    }
+
     @Override
     public int getSlotLimit(int slot) {
         int index = getIndexForSlot(slot);
@@ -5,13 +5,17 @@
 
 package net.neoforged.neoforge.items.wrapper;
 
+import java.util.function.Predicate;
 import net.minecraft.world.Container;
 import net.minecraft.world.item.ItemStack;
+import net.neoforged.neoforge.items.DirectBulkTransfer;
 import net.neoforged.neoforge.items.IItemHandlerModifiable;
 import net.neoforged.neoforge.items.ItemHandlerHelper;
 import org.jetbrains.annotations.NotNull;
 
 public class InvWrapper implements IItemHandlerModifiable {
+    private static final DirectBulkTransfer DIRECT_BULK_TRANSFER = new DirectBulkTransfer(InvWrapper.class);
+
     private final Container inv;
 
     public InvWrapper(Container inv) {
@@ -146,6 +150,87 @@ public class InvWrapper implements IItemHandlerModifiable {
         }
     }
 
+    @Override
+    @NotNull
+    public ItemStack insertItemStacked(@NotNull ItemStack stack, boolean simulate) {
+        if (stack.isEmpty() || !DIRECT_BULK_TRANSFER.isSupported(getClass()))
+            return IItemHandlerModifiable.super.insertItemStacked(stack, simulate);
+
+        Container inv = getInv();
+        int size = inv.getContainerSize();
+        int remaining = stack.getCount();
+
+        // go through the inventory and try to fill up already existing items
+        for (int i = 0; i < size && remaining > 0; i++) {
+            ItemStack stackInSlot = inv.getItem(i);
+            if (stackInSlot.isEmpty() || !ItemHandlerHelper.canItemStacksStack(stack, stackInSlot))
+                continue;
+
+            int toInsert = Math.min(remaining, Math.min(stack.getMaxStackSize(), getSlotLimit(i)) - stackInSlot.getCount());
+            if (toInsert <= 0 || !inv.canPlaceItem(i, stack))
+                continue;
+
+            if (!simulate)
+                inv.setItem(i, ItemHandlerHelper.copyStackWithSize(stack, stackInSlot.getCount() + toInsert));
+            remaining -= toInsert;
+        }
+
+        // insert remainder into empty slots
+        for (int i = 0; i < size && remaining > 0; i++) {
+            if (!inv.getItem(i).isEmpty() || !inv.canPlaceItem(i, stack))
+                continue;
+
+            int toInsert = Math.min(remaining, Math.min(stack.getMaxStackSize(), getSlotLimit(i)));
+            if (toInsert <= 0)
+                continue;
+
+            if (!simulate)
+                inv.setItem(i, ItemHandlerHelper.copyStackWithSize(stack, toInsert));
+            remaining -= toInsert;
+        }
+
+        if (remaining == stack.getCount())
+            return stack;
+        if (!simulate)
+            inv.setChanged();
+        return ItemHandlerHelper.copyStackWithSize(stack, remaining);
+    }
+
+    @Override
+    @NotNull
+    public ItemStack extractItem(@NotNull Predicate<ItemStack> filter, int amount, boolean simulate) {
+        if (!DIRECT_BULK_TRANSFER.isSupported(getClass()))
+            return IItemHandlerModifiable.super.extractItem(filter, amount, simulate);
+
+        Container inv = getInv();
+        int size = inv.getContainerSize();
+        ItemStack extracted = ItemStack.EMPTY;
+
+        for (int i = 0; i < size && amount > 0; i++) {
+            ItemStack stackInSlot = inv.getItem(i);
+            if (stackInSlot.isEmpty() || !filter.test(stackInSlot))
+                continue;
+
+            if (extracted.isEmpty()) {
+                amount = Math.min(amount, stackInSlot.getMaxStackSize());
+            } else if (!ItemHandlerHelper.canItemStacksStack(extracted, stackInSlot)) {
+                continue;
+            }
+
+            int toExtract = Math.min(amount, stackInSlot.getCount());
+            ItemStack removed = simulate ? ItemHandlerHelper.copyStackWithSize(stackInSlot, toExtract) : inv.removeItem(i, toExtract);
+            if (extracted.isEmpty())
+                extracted = removed;
+            else
+                extracted.grow(removed.getCount());
+            amount -= removed.getCount();
+        }
+
+        if (!simulate && !extracted.isEmpty())
+            inv.setChanged();
+        return extracted;
+    }
+
     @Override
     public void setStackInSlot(int slot, @NotNull ItemStack stack) {
         getInv().setItem(slot, stack);
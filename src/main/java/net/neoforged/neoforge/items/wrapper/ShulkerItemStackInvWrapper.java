@@ -16,6 +16,7 @@ import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.neoforged.neoforge.common.capabilities.Capabilities;
 import net.neoforged.neoforge.common.capabilities.Capability;
 import net.neoforged.neoforge.common.capabilities.ICapabilityProvider;
+import net.neoforged.neoforge.common.capabilities.IStableCapabilityProvider;
 import net.neoforged.neoforge.common.util.LazyOptional;
 import net.neoforged.neoforge.items.IItemHandler;
 import net.neoforged.neoforge.items.IItemHandlerModifiable;
@@ -25,7 +26,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 @ApiStatus.Internal
-public class ShulkerItemStackInvWrapper implements IItemHandlerModifiable, ICapabilityProvider {
+public class ShulkerItemStackInvWrapper implements IItemHandlerModifiable, IStableCapabilityProvider {
     @ApiStatus.Internal
     @Nullable
     public static ICapabilityProvider createDefaultProvider(ItemStack itemStack) {
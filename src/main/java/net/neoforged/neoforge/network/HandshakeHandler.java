@@ -8,6 +8,7 @@ package net.neoforged.neoforge.network;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.mojang.authlib.GameProfile;
+import io.netty.buffer.Unpooled;
 import it.unimi.dsi.fastutil.ints.IntArrayList;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -28,6 +29,7 @@ import java.util.function.IntSupplier;
 import java.util.stream.Collectors;
 import net.minecraft.core.Registry;
 import net.minecraft.network.Connection;
+import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.network.chat.Component;
 import net.minecraft.network.protocol.handshake.ClientIntentionPacket;
 import net.minecraft.network.protocol.login.ClientboundCustomQueryPacket;
@@ -43,11 +45,13 @@ import net.neoforged.neoforge.network.simple.SimpleChannel;
 import net.neoforged.neoforge.registries.DataPackRegistriesHooks;
 import net.neoforged.neoforge.registries.ForgeRegistry;
 import net.neoforged.neoforge.registries.GameData;
+import net.neoforged.neoforge.registries.RegistryManager;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.Marker;
 import org.apache.logging.log4j.MarkerManager;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Instance responsible for handling the overall FML impl handshake.
@@ -76,6 +80,9 @@ import org.apache.logging.log4j.MarkerManager;
  * should contain the index of the server's packet it is replying to. The {@link LoginWrapper} class handles indexing
  * replies correctly automatically.
  *
+ * <p>The registry snapshots are only queued once the client replied to the mod list with the hashes of the snapshots
+ * it has {@linkplain RegistrySnapshotCache cached}, so that the snapshots the client already has are not sent again.
+ *
  * <p>Once all packets have been dispatched, we wait for all replies to be received. Once all replies are received, the
  * final login phase will commence.
  */
@@ -111,18 +118,27 @@ public class HandshakeHandler {
     private Set<ResourceLocation> registriesToReceive;
     private boolean negotiationStarted = false;
     private final List<Future<Void>> pendingFutures = new ArrayList<>();
+    /**
+     * The hashes of the registry snapshots cached by the client, received on the network thread.
+     */
+    @Nullable
+    private volatile Map<ResourceLocation, String> clientRegistryHashes;
+    private boolean registryPacketsQueued;
 
     private HandshakeHandler(Connection networkManager, LoginNetworkDirection side) {
         this.direction = side;
         this.manager = networkManager;
         if (networkManager.isMemoryConnection()) {
             this.messageList = NetworkRegistry.gatherLoginPayloads(this.direction, true);
+            this.registryPacketsQueued = true;
             LOGGER.debug(FMLHSMARKER, "Starting local connection.");
         } else if (NetworkHooks.getConnectionType(() -> this.manager) == ConnectionType.VANILLA) {
             this.messageList = Collections.emptyList();
+            this.registryPacketsQueued = true;
             LOGGER.debug(FMLHSMARKER, "Starting new vanilla impl connection.");
         } else {
             this.messageList = NetworkRegistry.gatherLoginPayloads(this.direction, false);
+            this.registryPacketsQueued = this.direction != LoginNetworkDirection.LOGIN_TO_CLIENT;
             LOGGER.debug(FMLHSMARKER, "Starting new modded impl connection. Found {} messages to dispatch.", this.messageList.size());
         }
     }
@@ -233,6 +249,7 @@ public class HandshakeHandler {
             c.getNetworkManager().disconnect(Component.literal("Connection closed - mismatched mod channel list"));
             return;
         }
+        this.clientRegistryHashes = clientModList.getRegistries();
         LOGGER.debug(FMLHSMARKER, "Accepted client connection mod list");
     }
 
@@ -251,7 +268,17 @@ public class HandshakeHandler {
     void handleRegistryMessage(final HandshakeMessages.S2CRegistry registryPacket, final NetworkEvent.Context contextSupplier) {
         LOGGER.debug(FMLHSMARKER, "Received registry packet for {}", registryPacket.getRegistryName());
         this.registriesToReceive.remove(registryPacket.getRegistryName());
-        this.registrySnapshots.put(registryPacket.getRegistryName(), registryPacket.getSnapshot());
+        ForgeRegistry.Snapshot snapshot = registryPacket.getSnapshot();
+        if (registryPacket.getCachedHash() != null) {
+            snapshot = RegistrySnapshotCache.get(registryPacket.getRegistryName(), registryPacket.getCachedHash());
+            if (snapshot == null) {
+                LOGGER.error(FMLHSMARKER, "Server asked to use the cached snapshot of registry {}, which is missing", registryPacket.getRegistryName());
+                contextSupplier.setPacketHandled(true);
+                contextSupplier.getNetworkManager().disconnect(Component.literal("Connection closed - missing cached registry data"));
+                return;
+            }
+        }
+        this.registrySnapshots.put(registryPacket.getRegistryName(), snapshot);
 
         boolean continueHandshake = true;
         if (this.registriesToReceive.isEmpty()) {
@@ -290,6 +317,12 @@ public class HandshakeHandler {
         }
         if (successfulConnection.get()) {
             LOGGER.debug(FMLHSMARKER, "Registry load complete, continuing handshake.");
+            Map<ResourceLocation, ForgeRegistry.Snapshot> received = new HashMap<>();
+            registrySnapshots.forEach((name, snapshot) -> {
+                if (snapshot != null)
+                    received.put(name, snapshot);
+            });
+            RegistrySnapshotCache.store(received);
         } else {
             LOGGER.error(FMLHSMARKER, "Failed to load registry, closing connection.");
             //Populate the mod mismatch attribute with a new mismatch data instance to indicate that the disconnect happened due to a mod mismatch
@@ -330,6 +363,12 @@ public class HandshakeHandler {
             negotiationStarted = true;
         }
 
+        Map<ResourceLocation, String> clientRegistryHashes = this.clientRegistryHashes;
+        if (!registryPacketsQueued && clientRegistryHashes != null) {
+            messageList.addAll(packetPosition, generateRegistryPayloads(clientRegistryHashes));
+            registryPacketsQueued = true;
+        }
+
         if (packetPosition < messageList.size()) {
             NetworkRegistry.LoginPayload message = messageList.get(packetPosition);
 
@@ -357,7 +396,7 @@ public class HandshakeHandler {
         });
 
         // we're done when sentMessages is empty
-        if (sentMessages.isEmpty() && packetPosition >= messageList.size() - 1 && pendingFutures.isEmpty()) {
+        if (sentMessages.isEmpty() && registryPacketsQueued && packetPosition >= messageList.size() - 1 && pendingFutures.isEmpty()) {
             // clear ourselves - we're done!
             this.manager.channel().attr(NetworkConstants.FML_HANDSHAKE_HANDLER).set(null);
             LOGGER.debug(FMLHSMARKER, "Handshake complete!");
@@ -366,6 +405,20 @@ public class HandshakeHandler {
         return false;
     }
 
+    private static List<NetworkRegistry.LoginPayload> generateRegistryPayloads(Map<ResourceLocation, String> clientRegistryHashes) {
+        List<NetworkRegistry.LoginPayload> payloads = new ArrayList<>();
+        int cached = 0;
+        for (MessageFunctions.LoginPacket<HandshakeMessages.S2CRegistry> packet : RegistryManager.generateRegistryPackets(clientRegistryHashes)) {
+            FriendlyByteBuf buffer = new FriendlyByteBuf(Unpooled.buffer());
+            NetworkConstants.handshakeChannel.encodeMessage(packet.msg(), buffer);
+            payloads.add(new NetworkRegistry.LoginPayload(buffer, NetworkConstants.FML_HANDSHAKE_RESOURCE, packet.context()));
+            if (packet.msg().getCachedHash() != null)
+                cached++;
+        }
+        LOGGER.debug(FMLHSMARKER, "Queued {} registries, {} of which are cached by the client", payloads.size(), cached);
+        return payloads;
+    }
+
     /**
      * Helper method to determine if the S2C packet at the given packet position needs a response in form of a packet handled in {@link HandshakeHandler#handleIndexedMessage} for the handshake to progress.
      * 
@@ -5,7 +5,6 @@
 
 package net.neoforged.neoforge.network;
 
-import com.google.common.collect.Maps;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -161,7 +160,7 @@ public class HandshakeMessages {
         public C2SModListReply() {
             this.mods = ModList.get().getMods().stream().map(IModInfo::getModId).collect(Collectors.toList());
             this.channels = NetworkRegistry.buildChannelVersions();
-            this.registries = Maps.newHashMap(); //TODO: Fill with known hashes, which requires keeping a file cache
+            this.registries = RegistrySnapshotCache.getHashes();
         }
 
         private C2SModListReply(List<String> mods, Map<ResourceLocation, String> channels, Map<ResourceLocation, String> registries) {
@@ -235,10 +234,24 @@ public class HandshakeMessages {
         private final ResourceLocation registryName;
         @Nullable
         private final ForgeRegistry.Snapshot snapshot;
+        @Nullable
+        private final String cachedHash;
 
         public S2CRegistry(final ResourceLocation name, @Nullable ForgeRegistry.Snapshot snapshot) {
+            this(name, snapshot, null);
+        }
+
+        private S2CRegistry(final ResourceLocation name, @Nullable ForgeRegistry.Snapshot snapshot, @Nullable String cachedHash) {
             this.registryName = name;
             this.snapshot = snapshot;
+            this.cachedHash = cachedHash;
+        }
+
+        /**
+         * Creates a message telling the client to use the snapshot it has cached for the registry, because it has the same hash as the snapshot of the server.
+         */
+        public static S2CRegistry cached(final ResourceLocation name, final String hash) {
+            return new S2CRegistry(name, null, hash);
         }
 
         @Override
@@ -247,14 +260,15 @@ public class HandshakeMessages {
             buffer.writeBoolean(hasSnapshot());
             if (hasSnapshot())
                 buffer.writeBytes(snapshot.getPacketData());
+            else
+                buffer.writeNullable(cachedHash, (buf, hash) -> buf.writeUtf(hash, 0x100));
         }
 
         public static S2CRegistry decode(final FriendlyByteBuf buffer) {
             ResourceLocation name = buffer.readResourceLocation();
-            ForgeRegistry.Snapshot snapshot = null;
             if (buffer.readBoolean())
-                snapshot = ForgeRegistry.Snapshot.read(buffer);
-            return new S2CRegistry(name, snapshot);
+                return new S2CRegistry(name, ForgeRegistry.Snapshot.read(buffer));
+            return new S2CRegistry(name, null, buffer.readNullable(buf -> buf.readUtf(0x100)));
         }
 
         public ResourceLocation getRegistryName() {
@@ -269,6 +283,14 @@ public class HandshakeMessages {
         public ForgeRegistry.Snapshot getSnapshot() {
             return snapshot;
         }
+
+        /**
+         * {@return the hash of the snapshot the client must use from its cache, or {@code null} if the snapshot was sent}
+         */
+        @Nullable
+        public String getCachedHash() {
+            return cachedHash;
+        }
     }
 
     public static class S2CConfigData extends LoginIndexedMessage {
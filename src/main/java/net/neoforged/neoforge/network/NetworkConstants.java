@@ -23,8 +23,10 @@ public class NetworkConstants {
     public static final String FMLNETMARKER = "FML";
     /**
      * Netversion 3: {@link S2CModList} packet may include a list of non-vanilla synced datapack registry ids.
+     * Netversion 4: registry snapshots use a compact delta-encoded format; the client replies with the hashes of its cached snapshots
+     * and the server only sends a hash for the registries whose cached snapshot is up to date.
      */
-    public static final int FMLNETVERSION = 3;
+    public static final int FMLNETVERSION = 4;
     public static final String NETVERSION = FMLNETMARKER + FMLNETVERSION;
     public static final String NOVERSION = "NONE";
 
@@ -11,10 +11,14 @@ import java.util.function.Consumer;
 import java.util.function.Supplier;
 import net.minecraft.client.Minecraft;
 import net.minecraft.network.Connection;
+import net.minecraft.network.protocol.BundlerInfo;
 import net.minecraft.network.protocol.Packet;
+import net.minecraft.network.protocol.game.ClientGamePacketListener;
+import net.minecraft.network.protocol.game.ClientboundBundlePacket;
 import net.minecraft.resources.ResourceKey;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerChunkCache;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.level.Level;
@@ -167,6 +171,27 @@ public class PacketDistributor<T> {
             packetConsumer.accept(packet);
         }
 
+        /**
+         * Sends several packets to this target at once.
+         * <p>
+         * Packets sent to clients are grouped into {@link ClientboundBundlePacket bundles}, so that the recipients are only resolved once
+         * and each connection writes all packets with a single flush. The client handles the packets of a bundle together on its main thread.
+         * Packets sent to the server are sent one by one.
+         *
+         * @param packets the packets to send, in order
+         */
+        @SuppressWarnings("unchecked")
+        public void send(List<? extends Packet<?>> packets) {
+            if (getDirection() != PlayNetworkDirection.PLAY_TO_CLIENT || packets.size() == 1) {
+                packets.forEach(packetConsumer);
+                return;
+            }
+            for (int start = 0; start < packets.size(); start += BundlerInfo.BUNDLE_SIZE_LIMIT) {
+                List<? extends Packet<?>> bundle = packets.subList(start, Math.min(packets.size(), start + BundlerInfo.BUNDLE_SIZE_LIMIT));
+                packetConsumer.accept(new ClientboundBundlePacket((Iterable<Packet<ClientGamePacketListener>>) (Iterable<?>) List.copyOf(bundle)));
+            }
+        }
+
         public PlayNetworkDirection getDirection() {
             return distributor.direction;
         }
@@ -221,7 +246,22 @@ public class PacketDistributor<T> {
     private Consumer<Packet<?>> playerListPointConsumer(final Supplier<TargetPoint> targetPointSupplier) {
         return p -> {
             final TargetPoint tp = targetPointSupplier.get();
-            getServer().getPlayerList().broadcast(tp.excluded, tp.x, tp.y, tp.z, tp.r2, tp.dim, p);
+            final MinecraftServer server = getServer();
+            final ServerLevel level = server.getLevel(tp.dim);
+            if (level == null || !server.isSameThread()) {
+                server.getPlayerList().broadcast(tp.excluded, tp.x, tp.y, tp.z, tp.r2, tp.dim, p);
+                return;
+            }
+            // Same check as PlayerList#broadcast, but only for the players in the sections around the point
+            PlayerSpatialIndex.get(level).forEachPlayerNear(tp.excluded, tp.x, tp.y, tp.z, tp.r2, player -> {
+                if (player.level() != level)
+                    return;
+                double dx = tp.x - player.getX();
+                double dy = tp.y - player.getY();
+                double dz = tp.z - player.getZ();
+                if (dx * dx + dy * dy + dz * dz < tp.r2 * tp.r2)
+                    player.connection.send(p);
+            });
         };
     }
 
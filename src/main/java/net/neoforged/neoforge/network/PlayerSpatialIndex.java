@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.neoforge.network;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.Level;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Index of the players of each dimension, bucketed by the chunk section they are in, used by {@link PacketDistributor#NEAR}.
+ * <p>
+ * The index of a dimension is rebuilt the first time it is queried in a server tick, and after a player was added to or removed from the dimension
+ * or moved to another chunk section, including by teleporting. Callers must still check the exact distance using the current position of the players.
+ * The index must only be queried on the server thread, but may be invalidated from the thread ticking its level.
+ */
+@ApiStatus.Internal
+public final class PlayerSpatialIndex {
+    private static final Map<ResourceKey<Level>, PlayerSpatialIndex> INDICES = new ConcurrentHashMap<>();
+
+    private final ServerLevel level;
+    private final Long2ObjectMap<List<ServerPlayer>> playersBySection = new Long2ObjectOpenHashMap<>();
+    private int builtTick = -1;
+    private volatile boolean dirty = true;
+
+    private PlayerSpatialIndex(ServerLevel level) {
+        this.level = level;
+    }
+
+    /**
+     * {@return the up-to-date index of the players in the given level}
+     */
+    public static PlayerSpatialIndex get(ServerLevel level) {
+        PlayerSpatialIndex index = INDICES.get(level.dimension());
+        if (index == null || index.level != level) {
+            index = new PlayerSpatialIndex(level);
+            INDICES.put(level.dimension(), index);
+        }
+        index.update();
+        return index;
+    }
+
+    /**
+     * Marks the index of the given level for rebuilding, called when a player is added to or removed from the level, or enters another chunk section.
+     */
+    public static void invalidate(ServerLevel level) {
+        PlayerSpatialIndex index = INDICES.get(level.dimension());
+        if (index != null)
+            index.dirty = true;
+    }
+
+    /**
+     * Drops all indices, called when the server stops.
+     */
+    public static void clear() {
+        INDICES.clear();
+    }
+
+    private void update() {
+        int tick = level.getServer().getTickCount();
+        if (builtTick == tick && !dirty)
+            return;
+        builtTick = tick;
+        dirty = false;
+        playersBySection.clear();
+        for (ServerPlayer player : level.players()) {
+            playersBySection.computeIfAbsent(SectionPos.asLong(player.blockPosition()), section -> new ObjectArrayList<>()).add(player);
+        }
+    }
+
+    /**
+     * Calls the consumer with every player that may be within the given radius around the given position.
+     * Players further away may be passed as well, so the caller must check the exact distance.
+     *
+     * @param excluded a player to skip, or {@code null}
+     */
+    public void forEachPlayerNear(@Nullable ServerPlayer excluded, double x, double y, double z, double radius, Consumer<ServerPlayer> consumer) {
+        int minX = SectionPos.blockToSectionCoord(x - radius), maxX = SectionPos.blockToSectionCoord(x + radius);
+        int minY = SectionPos.blockToSectionCoord(y - radius), maxY = SectionPos.blockToSectionCoord(y + radius);
+        int minZ = SectionPos.blockToSectionCoord(z - radius), maxZ = SectionPos.blockToSectionCoord(z + radius);
+        long sections = (long) (maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1);
+
+        if (sections > playersBySection.size()) {
+            // Scanning the occupied sections is cheaper than looking up every section in range
+            for (Long2ObjectMap.Entry<List<ServerPlayer>> entry : playersBySection.long2ObjectEntrySet()) {
+                long section = entry.getLongKey();
+                int sx = SectionPos.x(section), sy = SectionPos.y(section), sz = SectionPos.z(section);
+                if (sx >= minX && sx <= maxX && sy >= minY && sy <= maxY && sz >= minZ && sz <= maxZ)
+                    accept(entry.getValue(), excluded, consumer);
+            }
+        } else {
+            for (int sx = minX; sx <= maxX; sx++) {
+                for (int sy = minY; sy <= maxY; sy++) {
+                    for (int sz = minZ; sz <= maxZ; sz++) {
+                        List<ServerPlayer> players = playersBySection.get(SectionPos.asLong(sx, sy, sz));
+                        if (players != null)
+                            accept(players, excluded, consumer);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void accept(List<ServerPlayer> players, @Nullable ServerPlayer excluded, Consumer<ServerPlayer> consumer) {
+        for (int i = 0; i < players.size(); i++) {
+            ServerPlayer player = players.get(i);
+            if (player != excluded)
+                consumer.accept(player);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.neoforge.network;
+
+import com.google.common.hash.Hashing;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.resources.ResourceLocation;
+import net.neoforged.fml.loading.FMLPaths;
+import net.neoforged.neoforge.registries.ForgeRegistry;
+import net.neoforged.neoforge.registries.RegistryManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Client side cache of the last registry snapshots received from a server.
+ * <p>
+ * The hashes of the cached snapshots are sent to the server with the {@link HandshakeMessages.C2SModListReply mod list reply},
+ * and the server only sends the snapshots of the registries whose hash differs. The snapshots are stored in the
+ * {@code .cache/neoforge/registries} folder of the game directory, in their {@linkplain ForgeRegistry.Snapshot#getPacketData() network format},
+ * so that they are kept between game sessions.
+ */
+@ApiStatus.Internal
+public final class RegistrySnapshotCache {
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final String EXTENSION = ".bin";
+    @Nullable
+    private static Map<ResourceLocation, CachedSnapshot> snapshots;
+
+    private RegistrySnapshotCache() {}
+
+    /**
+     * {@return the hashes of the cached snapshots, by registry name}
+     */
+    public static synchronized Map<ResourceLocation, String> getHashes() {
+        Map<ResourceLocation, String> hashes = new HashMap<>();
+        getSnapshots().forEach((name, snapshot) -> hashes.put(name, snapshot.hash()));
+        return hashes;
+    }
+
+    /**
+     * {@return the cached snapshot of the given registry, or {@code null} if there is none with the given hash}
+     */
+    @Nullable
+    public static synchronized ForgeRegistry.Snapshot get(ResourceLocation registryName, String hash) {
+        CachedSnapshot cached = getSnapshots().get(registryName);
+        if (cached == null || !cached.hash().equals(hash))
+            return null;
+        return ForgeRegistry.Snapshot.read(new FriendlyByteBuf(Unpooled.wrappedBuffer(cached.data())));
+    }
+
+    /**
+     * Caches the snapshots received from a server, replacing the previous snapshots of the same registries.
+     * Only the snapshots of the registries synced to clients are cached, whatever other registry names the server sent.
+     */
+    public static synchronized void store(Map<ResourceLocation, ForgeRegistry.Snapshot> received) {
+        Map<ResourceLocation, CachedSnapshot> snapshots = getSnapshots();
+        Set<ResourceLocation> syncedRegistries = Set.copyOf(RegistryManager.getRegistryNamesForSyncToClient());
+        received.forEach((name, snapshot) -> {
+            Path file = getFile(name);
+            if (!syncedRegistries.contains(name) || file == null) {
+                LOGGER.warn("Not caching the snapshot of unexpected registry {}", name);
+                return;
+            }
+            CachedSnapshot cached = new CachedSnapshot(snapshot.getHash(), ByteBufUtil.getBytes(snapshot.getPacketData()));
+            CachedSnapshot previous = snapshots.put(name, cached);
+            if (previous != null && previous.hash().equals(cached.hash()))
+                return;
+            try {
+                Files.createDirectories(file.getParent());
+                Files.write(file, cached.data());
+            } catch (IOException e) {
+                LOGGER.warn("Failed to cache the snapshot of registry {} in {}", name, file, e);
+            }
+        });
+    }
+
+    private static Map<ResourceLocation, CachedSnapshot> getSnapshots() {
+        if (snapshots == null) {
+            snapshots = new HashMap<>();
+            load(snapshots);
+        }
+        return snapshots;
+    }
+
+    private static void load(Map<ResourceLocation, CachedSnapshot> snapshots) {
+        Path root = getRoot();
+        if (!Files.isDirectory(root))
+            return;
+        List<Path> files;
+        try (Stream<Path> stream = Files.walk(root)) {
+            files = stream.filter(file -> Files.isRegularFile(file) && file.getFileName().toString().endsWith(EXTENSION)).toList();
+        } catch (IOException e) {
+            LOGGER.warn("Failed to list the cached registry snapshots in {}", root, e);
+            return;
+        }
+        for (Path file : files) {
+            Path relative = root.relativize(file);
+            if (relative.getNameCount() < 2)
+                continue;
+            String namespace = relative.getName(0).toString();
+            String path = relative.subpath(1, relative.getNameCount()).toString().replace('\\', '/');
+            ResourceLocation name = ResourceLocation.tryBuild(namespace, path.substring(0, path.length() - EXTENSION.length()));
+            if (name == null)
+                continue;
+            try {
+                byte[] data = Files.readAllBytes(file);
+                snapshots.put(name, new CachedSnapshot(Hashing.sha256().hashBytes(data).toString(), data));
+            } catch (IOException e) {
+                LOGGER.warn("Failed to read the cached snapshot of registry {} from {}", name, file, e);
+            }
+        }
+    }
+
+    private static Path getRoot() {
+        return FMLPaths.GAMEDIR.get().resolve(".cache").resolve("neoforge").resolve("registries");
+    }
+
+    /**
+     * {@return the file of the cached snapshot of the given registry, or {@code null} if the name of the registry would resolve outside of the cache folder}
+     */
+    @Nullable
+    private static Path getFile(ResourceLocation registryName) {
+        Path root = getRoot().toAbsolutePath().normalize();
+        Path file = root.resolve(registryName.getNamespace()).resolve(registryName.getPath() + EXTENSION).normalize();
+        return file.startsWith(root) && !file.getParent().equals(root) ? file : null;
+    }
+
+    private record CachedSnapshot(String hash, byte[] data) {}
+}
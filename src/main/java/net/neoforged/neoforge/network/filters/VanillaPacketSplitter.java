@@ -6,11 +6,15 @@
 package net.neoforged.neoforge.network.filters;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.buffer.Unpooled;
-import java.util.ArrayList;
+import io.netty.channel.Channel;
+import io.netty.util.Attribute;
+import io.netty.util.AttributeKey;
 import java.util.List;
 import java.util.function.Predicate;
 import net.minecraft.network.*;
+import net.minecraft.network.chat.Component;
 import net.minecraft.network.protocol.Packet;
 import net.minecraft.network.protocol.PacketFlow;
 import net.minecraft.network.protocol.common.ClientboundCustomPayloadPacket;
@@ -24,6 +28,11 @@ import org.apache.logging.log4j.Logger;
 /**
  * A custom payload channel that allows sending vanilla server-to-client packets, even if they would normally
  * be too large for the vanilla protocol. This is achieved by splitting them into multiple custom payload packets.
+ * <p>
+ * Packets are serialized into a composite buffer and split into slices of it, and received parts are reassembled
+ * into a composite buffer stored on the receiving connection, so that the packet data is never copied.
+ * The received parts are released when the connection closes, and a connection sending a packet larger than
+ * {@code neoforge.splitPacketMaxSize} bytes (128 MiB by default) is disconnected.
  */
 public class VanillaPacketSplitter {
 
@@ -41,6 +50,11 @@ public class VanillaPacketSplitter {
     private static final byte STATE_FIRST = 1;
     private static final byte STATE_LAST = 2;
 
+    private static final int RECEIVED_MAX = Integer.getInteger("neoforge.splitPacketMaxSize", 128 * 1024 * 1024);
+
+    private static final AttributeKey<CompositeByteBuf> RECEIVED_PARTS = AttributeKey.valueOf("neoforge:split_received_parts");
+    private static final AttributeKey<Boolean> RELEASE_ON_CLOSE = AttributeKey.valueOf("neoforge:split_release_on_close");
+
     public static void register() {
         Predicate<String> versionCheck = NetworkRegistry.acceptMissingOr(VERSION);
         EventNetworkChannel channel = NetworkRegistry.newEventChannel(CHANNEL, () -> VERSION, versionCheck, versionCheck);
@@ -55,7 +69,8 @@ public class VanillaPacketSplitter {
         if (heuristicIsDefinitelySmallEnough(packet)) {
             out.add(packet);
         } else {
-            FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+            // A composite buffer grows by adding components, so serializing a large packet does not copy the data written so far
+            FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.compositeBuffer(Integer.MAX_VALUE));
             packet.write(buf);
             if (buf.readableBytes() <= PROTOCOL_MAX) {
                 buf.release();
@@ -94,8 +109,6 @@ public class VanillaPacketSplitter {
         return false;
     }
 
-    private static final List<FriendlyByteBuf> receivedBuffers = new ArrayList<>();
-
     private static void onClientPacket(NetworkEvent.ServerCustomPayloadEvent event) {
         NetworkEvent.Context ctx = event.getSource();
         PacketFlow direction = ctx.getDirection() == PlayNetworkDirection.PLAY_TO_CLIENT ? PacketFlow.CLIENTBOUND : PacketFlow.SERVERBOUND;
@@ -104,30 +117,56 @@ public class VanillaPacketSplitter {
         ctx.setPacketHandled(true);
 
         FriendlyByteBuf buf = event.getPayload();
+        Channel channel = ctx.getNetworkManager().channel();
+        Attribute<CompositeByteBuf> receivedParts = channel.attr(RECEIVED_PARTS);
 
         byte state = buf.readByte();
+        CompositeByteBuf parts = receivedParts.get();
         if (state == STATE_FIRST) {
-            if (!receivedBuffers.isEmpty()) {
+            if (parts != null) {
                 LOGGER.warn("neoforge:split received out of order - inbound buffer not empty when receiving first");
-                receivedBuffers.clear();
+                parts.release();
             }
+            parts = Unpooled.compositeBuffer(Integer.MAX_VALUE);
+            receivedParts.set(parts);
+            // the parts of a packet still being received are released if the connection closes before the last part
+            if (channel.attr(RELEASE_ON_CLOSE).setIfAbsent(true) == null)
+                channel.closeFuture().addListener(future -> releaseReceivedParts(channel));
+        } else if (parts == null) {
+            LOGGER.warn("neoforge:split received out of order - inbound buffer empty when receiving later part");
+            return;
         }
-        buf.retain(); // retain the buffer, it is released after this handler otherwise
-        receivedBuffers.add(buf);
+        if ((long) parts.readableBytes() + buf.readableBytes() > RECEIVED_MAX) {
+            LOGGER.error("neoforge:split received a packet larger than the maximum of {} bytes, disconnecting", RECEIVED_MAX);
+            releaseReceivedParts(channel);
+            ctx.getNetworkManager().disconnect(Component.literal("Received a split packet larger than " + RECEIVED_MAX + " bytes"));
+            return;
+        }
+        // retain the buffer, it is released after this handler otherwise; the composite buffer releases it once reassembled
+        parts.addComponent(true, buf.retain());
         if (state == STATE_LAST) {
-            FriendlyByteBuf full = new FriendlyByteBuf(Unpooled.wrappedBuffer(receivedBuffers.toArray(new FriendlyByteBuf[0])));
-            int packetId = full.readVarInt();
-            Packet<?> packet = protocol.codec(direction).createPacket(packetId, full);
-            if (packet == null) {
-                LOGGER.error("Received invalid packet ID {} in neoforge:split", packetId);
-            } else {
-                receivedBuffers.clear();
+            receivedParts.set(null);
+            FriendlyByteBuf full = new FriendlyByteBuf(parts);
+            try {
+                int packetId = full.readVarInt();
+                Packet<?> packet = protocol.codec(direction).createPacket(packetId, full);
+                if (packet == null) {
+                    LOGGER.error("Received invalid packet ID {} in neoforge:split", packetId);
+                } else {
+                    ctx.enqueueWork(() -> genericsFtw(packet, event.getSource().getNetworkManager().getPacketListener()));
+                }
+            } finally {
                 full.release();
-                ctx.enqueueWork(() -> genericsFtw(packet, event.getSource().getNetworkManager().getPacketListener()));
             }
         }
     }
 
+    private static void releaseReceivedParts(Channel channel) {
+        CompositeByteBuf parts = channel.attr(RECEIVED_PARTS).getAndSet(null);
+        if (parts != null)
+            parts.release();
+    }
+
     @SuppressWarnings("unchecked")
     private static <T extends PacketListener> void genericsFtw(Packet<T> pkt, Object listener) {
         pkt.handle((T) listener);
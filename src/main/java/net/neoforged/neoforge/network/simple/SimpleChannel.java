@@ -103,6 +103,22 @@ public class SimpleChannel {
         target.send(toVanillaPacket(message, target.getDirection()));
     }
 
+    /**
+     * Send several messages to the {@link PacketDistributor.PacketTarget} from a {@link PacketDistributor} instance at once.
+     * The recipients are only resolved once, see {@link PacketDistributor.PacketTarget#send(List)}.
+     *
+     * @param target   The curried target from a PacketDistributor
+     * @param messages The messages to send, in order
+     * @param <MSG>    The type of the messages
+     */
+    public <MSG> void sendAll(PacketDistributor.PacketTarget target, Collection<? extends MSG> messages) {
+        List<Packet<?>> packets = new ArrayList<>(messages.size());
+        for (MSG message : messages) {
+            packets.add(toVanillaPacket(message, target.getDirection()));
+        }
+        target.send(packets);
+    }
+
     public <MSG> Packet<?> toVanillaPacket(MSG message, PlayNetworkDirection direction) {
         return direction.buildPacket(toBuffer(message), instance.getChannelName());
     }
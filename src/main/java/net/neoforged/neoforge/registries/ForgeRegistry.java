@@ -13,13 +13,22 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
+import com.google.common.hash.Hashing;
 import com.mojang.datafixers.util.Pair;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.DataResult;
 import com.mojang.serialization.DynamicOps;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.objects.Object2IntLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.function.Consumer;
 import net.minecraft.core.Holder;
 import net.minecraft.core.HolderSet;
 import net.minecraft.core.Registry;
@@ -77,6 +86,12 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
 
     private V defaultValue = null;
     boolean isFrozen = false;
+    /**
+     * Array-backed copy of the ids and delegates, used for lookups while the registry is frozen. Built on the first lookup after
+     * the registry was frozen, and discarded whenever the registry changes.
+     */
+    @Nullable
+    private volatile FrozenLookup<V> frozenLookup;
 
     private final ResourceLocation name;
     private final ResourceKey<Registry<V>> key;
@@ -294,6 +309,11 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
     }
 
     public int getID(V value) {
+        FrozenLookup<V> lookup = getFrozenLookup();
+        if (lookup != null) {
+            int id = lookup.getId(value);
+            return id == -1 && this.defaultValue != null ? lookup.getId(this.defaultValue) : id;
+        }
         Integer ret = this.ids.inverse().get(value);
         if (ret == null && this.defaultValue != null)
             ret = this.ids.inverse().get(this.defaultValue);
@@ -305,6 +325,9 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
     }
 
     private int getIDRaw(V value) {
+        FrozenLookup<V> lookup = getFrozenLookup();
+        if (lookup != null)
+            return lookup.getId(value);
         Integer ret = this.ids.inverse().get(value);
         return ret == null ? -1 : ret.intValue();
     }
@@ -315,7 +338,8 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
 
     @Override
     public V getValue(int id) {
-        V ret = this.ids.get(id);
+        FrozenLookup<V> lookup = getFrozenLookup();
+        V ret = lookup != null ? lookup.getValue(id) : this.ids.get(id);
         return ret == null ? this.defaultValue : ret;
     }
 
@@ -392,6 +416,7 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
         }
 
         ResourceKey<V> rkey = ResourceKey.create(this.key, key);
+        this.frozenLookup = null;
         this.names.put(key, value);
         this.keys.put(rkey, value);
         this.ids.put(idToUse, value);
@@ -466,7 +491,8 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
     @NotNull
     @Override
     public Optional<Holder.Reference<V>> getDelegate(V value) {
-        return Optional.ofNullable(delegatesByValue.get(value));
+        FrozenLookup<V> lookup = getFrozenLookup();
+        return Optional.ofNullable(lookup != null ? lookup.delegatesByValue.get(value) : delegatesByValue.get(value));
     }
 
     @NotNull
@@ -480,6 +506,7 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
         delegate.bindKey(rkey);
         delegate.bindValue(value);
         delegatesByValue.put(value, delegate);
+        this.frozenLookup = null;
         return delegate;
     }
 
@@ -552,6 +579,7 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
             throw new IllegalArgumentException("WTF We are the same!?!?!");
 
         this.isFrozen = false;
+        this.frozenLookup = null;
 
         if (this.clear != null)
             this.clear.onClear(this, stage);
@@ -622,6 +650,7 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
 
         this.aliases.clear();
 
+        this.frozenLookup = null;
         this.ids.clear();
         this.names.clear();
         this.keys.clear();
@@ -638,6 +667,7 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
 
         V value = this.names.remove(key);
         if (value != null) {
+            this.frozenLookup = null;
             ResourceKey<V> rkey = this.keys.inverse().remove(value);
             if (rkey == null)
                 throw new IllegalStateException("Removed a entry that did not have an associated RegistryKey: " + key + " " + value.toString() + " This should never happen unless hackery!");
@@ -672,6 +702,53 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
 
     public void unfreeze() {
         this.isFrozen = false;
+        this.frozenLookup = null;
+    }
+
+    @Nullable
+    private FrozenLookup<V> getFrozenLookup() {
+        if (!this.isFrozen)
+            return null;
+        FrozenLookup<V> lookup = this.frozenLookup;
+        if (lookup == null) {
+            lookup = new FrozenLookup<>(this.ids, this.delegatesByValue);
+            this.frozenLookup = lookup;
+        }
+        return lookup;
+    }
+
+    /**
+     * Dense id to value array and identity maps from values to their id and delegate, replacing the boxed maps of the registry for lookups.
+     */
+    private static final class FrozenLookup<V> {
+        private final Object[] values;
+        private final Reference2IntMap<V> idsByValue;
+        private final Reference2ObjectMap<V, Holder.Reference<V>> delegatesByValue;
+
+        private FrozenLookup(BiMap<Integer, V> ids, Map<V, Holder.Reference<V>> delegatesByValue) {
+            int maxId = -1;
+            for (int id : ids.keySet())
+                maxId = Math.max(maxId, id);
+            this.values = new Object[maxId + 1];
+            this.idsByValue = new Reference2IntOpenHashMap<>(ids.size());
+            this.idsByValue.defaultReturnValue(-1);
+            ids.forEach((id, value) -> {
+                if (id >= 0)
+                    this.values[id] = value;
+                this.idsByValue.put(value, id.intValue());
+            });
+            this.delegatesByValue = new Reference2ObjectOpenHashMap<>(delegatesByValue);
+        }
+
+        private int getId(@Nullable V value) {
+            return value == null ? -1 : this.idsByValue.getInt(value);
+        }
+
+        @Nullable
+        @SuppressWarnings("unchecked")
+        private V getValue(int id) {
+            return id >= 0 && id < this.values.length ? (V) this.values[id] : null;
+        }
     }
 
     void dump(ResourceLocation name) {
@@ -829,6 +906,7 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
         public final Set<Integer> blocked = Sets.newTreeSet();
         public final Map<ResourceLocation, String> overrides = Maps.newTreeMap(sorter);
         private FriendlyByteBuf binary = null;
+        private String hash = null;
 
         public CompoundTag write() {
             CompoundTag data = new CompoundTag();
@@ -898,30 +976,61 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
             return ret;
         }
 
+        /**
+         * Encodes this snapshot for the network.
+         * <p>
+         * Resource locations are written as an index into a table of the namespaces of the snapshot followed by their path,
+         * which shares its leading characters with the previously written path. Ids are written in ascending order,
+         * as the difference to the previous id.
+         */
         public synchronized FriendlyByteBuf getPacketData() {
             if (binary == null) {
                 FriendlyByteBuf pkt = new FriendlyByteBuf(Unpooled.buffer());
 
-                pkt.writeVarInt(this.ids.size());
-                this.ids.forEach((k, v) -> {
-                    pkt.writeResourceLocation(k);
-                    pkt.writeVarInt(v);
+                Object2IntMap<String> namespaces = new Object2IntLinkedOpenHashMap<>();
+                namespaces.defaultReturnValue(-1);
+                Consumer<ResourceLocation> addNamespace = key -> {
+                    if (!namespaces.containsKey(key.getNamespace()))
+                        namespaces.put(key.getNamespace(), namespaces.size());
+                };
+                this.ids.keySet().forEach(addNamespace);
+                this.aliases.forEach((k, v) -> {
+                    addNamespace.accept(k);
+                    addNamespace.accept(v);
                 });
+                this.overrides.keySet().forEach(addNamespace);
+                pkt.writeVarInt(namespaces.size());
+                namespaces.keySet().forEach(pkt::writeUtf);
+
+                PathWriter writer = new PathWriter(pkt, namespaces);
+                List<Entry<ResourceLocation, Integer>> byId = new ArrayList<>(this.ids.entrySet());
+                byId.sort(Entry.comparingByValue());
+                pkt.writeVarInt(byId.size());
+                int previousId = -1;
+                for (Entry<ResourceLocation, Integer> e : byId) {
+                    pkt.writeVarInt(e.getValue() - previousId - 1);
+                    writer.write(e.getKey());
+                    previousId = e.getValue();
+                }
 
                 pkt.writeVarInt(this.aliases.size());
                 this.aliases.forEach((k, v) -> {
-                    pkt.writeResourceLocation(k);
-                    pkt.writeResourceLocation(v);
+                    writer.write(k);
+                    writer.write(v);
                 });
 
                 pkt.writeVarInt(this.overrides.size());
                 this.overrides.forEach((k, v) -> {
-                    pkt.writeResourceLocation(k);
+                    writer.write(k);
                     pkt.writeUtf(v, 0x100);
                 });
 
                 pkt.writeVarInt(this.blocked.size());
-                this.blocked.forEach(pkt::writeVarInt);
+                int previousBlocked = -1;
+                for (int id : this.blocked) {
+                    pkt.writeVarInt(id - previousBlocked - 1);
+                    previousBlocked = id;
+                }
 
                 this.binary = pkt;
             }
@@ -929,6 +1038,16 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
             return new FriendlyByteBuf(binary.slice());
         }
 
+        /**
+         * {@return the hash of the {@linkplain #getPacketData() network data} of this snapshot}
+         * Two snapshots with the same hash hold the same data.
+         */
+        public synchronized String getHash() {
+            if (hash == null)
+                hash = Hashing.sha256().hashBytes(ByteBufUtil.getBytes(getPacketData())).toString();
+            return hash;
+        }
+
         public static Snapshot read(FriendlyByteBuf buff) {
             if (buff == null)
                 return new Snapshot();
@@ -936,23 +1055,77 @@ public class ForgeRegistry<V> implements IForgeRegistryInternal<V>, IForgeRegist
             Snapshot ret = new Snapshot();
 
             int len = buff.readVarInt();
+            String[] namespaces = new String[len];
             for (int x = 0; x < len; x++)
-                ret.ids.put(buff.readResourceLocation(), buff.readVarInt());
+                namespaces[x] = buff.readUtf();
 
+            PathReader reader = new PathReader(buff, namespaces);
             len = buff.readVarInt();
-            for (int x = 0; x < len; x++)
-                ret.aliases.put(buff.readResourceLocation(), buff.readResourceLocation());
+            int id = -1;
+            for (int x = 0; x < len; x++) {
+                id += buff.readVarInt() + 1;
+                ret.ids.put(reader.read(), id);
+            }
 
             len = buff.readVarInt();
             for (int x = 0; x < len; x++)
-                ret.overrides.put(buff.readResourceLocation(), buff.readUtf(0x100));
+                ret.aliases.put(reader.read(), reader.read());
 
             len = buff.readVarInt();
             for (int x = 0; x < len; x++)
-                ret.blocked.add(buff.readVarInt());
+                ret.overrides.put(reader.read(), buff.readUtf(0x100));
+
+            len = buff.readVarInt();
+            int blockedId = -1;
+            for (int x = 0; x < len; x++) {
+                blockedId += buff.readVarInt() + 1;
+                ret.blocked.add(blockedId);
+            }
 
             return ret;
         }
+
+        private static final class PathWriter {
+            private final FriendlyByteBuf buf;
+            private final Object2IntMap<String> namespaces;
+            private String previousPath = "";
+
+            private PathWriter(FriendlyByteBuf buf, Object2IntMap<String> namespaces) {
+                this.buf = buf;
+                this.namespaces = namespaces;
+            }
+
+            private void write(ResourceLocation key) {
+                String path = key.getPath();
+                int shared = 0;
+                int max = Math.min(path.length(), previousPath.length());
+                while (shared < max && path.charAt(shared) == previousPath.charAt(shared))
+                    shared++;
+                buf.writeVarInt(namespaces.getInt(key.getNamespace()));
+                buf.writeVarInt(shared);
+                buf.writeUtf(path.substring(shared));
+                previousPath = path;
+            }
+        }
+
+        private static final class PathReader {
+            private final FriendlyByteBuf buf;
+            private final String[] namespaces;
+            private String previousPath = "";
+
+            private PathReader(FriendlyByteBuf buf, String[] namespaces) {
+                this.buf = buf;
+                this.namespaces = namespaces;
+            }
+
+            private ResourceLocation read() {
+                String namespace = namespaces[buf.readVarInt()];
+                int shared = buf.readVarInt();
+                String path = previousPath.substring(0, shared) + buf.readUtf();
+                previousPath = path;
+                return new ResourceLocation(namespace, path);
+            }
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -10,7 +10,6 @@ import com.google.common.collect.HashBiMap;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.mojang.serialization.Lifecycle;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -167,8 +166,17 @@ public class RegistryManager {
         this.registries.clear();
     }
 
-    public static List<MessageFunctions.LoginPacket<HandshakeMessages.S2CRegistry>> generateRegistryPackets(boolean isLocal) {
-        return !isLocal ? ACTIVE.takeSnapshot(false).entrySet().stream().map(e -> new MessageFunctions.LoginPacket<>("Registry " + e.getKey(), new HandshakeMessages.S2CRegistry(e.getKey(), e.getValue()))).toList() : Collections.emptyList();
+    /**
+     * Generates the packets syncing the registries to a remote client.
+     *
+     * @param clientHashes the hashes of the snapshots the client has cached, by registry name. The snapshots with the same hash are not sent.
+     */
+    public static List<MessageFunctions.LoginPacket<HandshakeMessages.S2CRegistry>> generateRegistryPackets(Map<ResourceLocation, String> clientHashes) {
+        return ACTIVE.takeSnapshot(false).entrySet().stream().map(e -> {
+            String hash = e.getValue().getHash();
+            HandshakeMessages.S2CRegistry message = hash.equals(clientHashes.get(e.getKey())) ? HandshakeMessages.S2CRegistry.cached(e.getKey(), hash) : new HandshakeMessages.S2CRegistry(e.getKey(), e.getValue());
+            return new MessageFunctions.LoginPacket<>("Registry " + e.getKey(), message);
+        }).toList();
     }
 
     public static List<ResourceLocation> getRegistryNamesForSyncToClient() {
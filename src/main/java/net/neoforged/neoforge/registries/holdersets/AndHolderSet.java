@@ -6,6 +6,7 @@
 package net.neoforged.neoforge.registries.holdersets;
 
 import com.mojang.serialization.Codec;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -57,8 +58,15 @@ public class AndHolderSet<T> extends CompositeHolderSet<T> {
             return components.get(0).stream().collect(Collectors.toSet());
         }
 
-        List<HolderSet<T>> remainingComponents = components.subList(1, components.size());
-        return components.get(0)
+        // Iterate the smallest component, and only check the others for its holders
+        HolderSet<T> smallest = components.get(0);
+        for (HolderSet<T> component : components) {
+            if (component.size() < smallest.size())
+                smallest = component;
+        }
+        List<HolderSet<T>> remainingComponents = new ArrayList<>(components);
+        remainingComponents.remove(smallest);
+        return smallest
                 .stream()
                 .filter(holder -> remainingComponents.stream().allMatch(holderset -> holderset.contains(holder)))
                 .collect(Collectors.toSet());
@@ -82,7 +82,7 @@ public record AnyHolderSet<T>(HolderLookup.RegistryLookup<T> registryLookup) imp
 
     @Override
     public boolean contains(Holder<T> holder) {
-        return holder.unwrapKey().map(key -> this.registryLookup.listElementIds().anyMatch(key::equals)).orElse(false);
+        return holder.unwrapKey().map(key -> this.registryLookup.get(key).isPresent()).orElse(false);
     }
 
     @Override
@@ -30,9 +30,9 @@ public abstract class CompositeHolderSet<T> implements ICustomHolderSet<T> {
     private final List<HolderSet<T>> components;
 
     @Nullable
-    private Set<Holder<T>> set = null;
+    private volatile Set<Holder<T>> set = null;
     @Nullable
-    private List<Holder<T>> list = null;
+    private volatile List<Holder<T>> list = null;
 
     public CompositeHolderSet(List<HolderSet<T>> components) {
         this.components = components;
@@ -59,7 +59,8 @@ public class DelegatingPackResources extends AbstractPackResources {
 
     @Override
     public void listResources(PackType type, String resourceNamespace, String paths, ResourceOutput resourceOutput) {
-        for (PackResources delegate : this.delegates) {
+        // Only the delegates containing the namespace can have resources in it
+        for (PackResources delegate : getCandidatePacks(type, resourceNamespace)) {
             delegate.listResources(type, resourceNamespace, paths, resourceOutput);
         }
     }
@@ -89,7 +90,7 @@ public class DelegatingPackResources extends AbstractPackResources {
         for (PackResources pack : getCandidatePacks(type, location)) {
             IoSupplier<InputStream> ioSupplier = pack.getResource(type, location);
             if (ioSupplier != null)
-                return pack.getResource(type, location);
+                return ioSupplier;
         }
 
         return null;
@@ -101,8 +102,12 @@ public class DelegatingPackResources extends AbstractPackResources {
     }
 
     private List<PackResources> getCandidatePacks(PackType type, ResourceLocation location) {
+        return getCandidatePacks(type, location.getNamespace());
+    }
+
+    private List<PackResources> getCandidatePacks(PackType type, String namespace) {
         Map<String, List<PackResources>> map = type == PackType.CLIENT_RESOURCES ? namespacesAssets : namespacesData;
-        List<PackResources> packsWithNamespace = map.get(location.getNamespace());
+        List<PackResources> packsWithNamespace = map.get(namespace);
         return packsWithNamespace == null ? Collections.emptyList() : packsWithNamespace;
     }
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.neoforge.resource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import net.minecraft.Util;
+
+/**
+ * Decodes the files loaded by a reload listener in parallel on the {@linkplain Util#backgroundExecutor() background executor}.
+ * <p>
+ * Reload listeners decoding their files in their apply stage, typically because decoding depends on the {@linkplain ContextAwareReloadListener condition context}
+ * which is only complete once tags are applied, can use this to decode all files at once and then merge the results in the original order:
+ *
+ * <pre>{@code
+ * List<Map.Entry<ResourceLocation, JsonElement>> entries = List.copyOf(jsons.entrySet());
+ * List<Supplier<T>> decoded = ParallelDecoder.decode(entries, entry -> decode(entry.getKey(), entry.getValue()));
+ * for (int i = 0; i < entries.size(); i++) {
+ *     T value = decoded.get(i).get();
+ *     ...
+ * }
+ * }</pre>
+ *
+ * The decoder must be safe to call from multiple threads at once.
+ */
+public final class ParallelDecoder {
+    /**
+     * The minimum number of inputs decoded by a single task, so that small listeners are not split up into tasks that are too small to be worth it.
+     */
+    private static final int MIN_BATCH_SIZE = 32;
+
+    private ParallelDecoder() {}
+
+    /**
+     * Decodes the given inputs in parallel and waits for all of them to be decoded.
+     *
+     * @return the results, in the order of the inputs. Getting a result rethrows the exception thrown while decoding its input, if any,
+     *         so that errors can be handled in the order of the inputs as well.
+     */
+    public static <T, R> List<Supplier<R>> decode(List<T> inputs, Function<T, R> decoder) {
+        Object[] results = new Object[inputs.size()];
+        int batches = Math.min(inputs.size() / MIN_BATCH_SIZE, Runtime.getRuntime().availableProcessors());
+        if (batches <= 1) {
+            decodeRange(inputs, decoder, results, 0, inputs.size());
+        } else {
+            CompletableFuture<?>[] futures = new CompletableFuture<?>[batches];
+            for (int batch = 0; batch < batches; batch++) {
+                int from = (int) ((long) inputs.size() * batch / batches);
+                int to = (int) ((long) inputs.size() * (batch + 1) / batches);
+                futures[batch] = CompletableFuture.runAsync(() -> decodeRange(inputs, decoder, results, from, to), Util.backgroundExecutor());
+            }
+            CompletableFuture.allOf(futures).join();
+        }
+
+        List<Supplier<R>> decoded = new ArrayList<>(results.length);
+        for (Object result : results) {
+            decoded.add(() -> {
+                if (result instanceof Failure failure)
+                    throw failure.exception();
+                @SuppressWarnings("unchecked")
+                R value = (R) result;
+                return value;
+            });
+        }
+        return decoded;
+    }
+
+    private static <T, R> void decodeRange(List<T> inputs, Function<T, R> decoder, Object[] results, int from, int to) {
+        for (int i = from; i < to; i++) {
+            try {
+                results[i] = decoder.apply(inputs.get(i));
+            } catch (RuntimeException e) {
+                results[i] = new Failure(e);
+            }
+        }
+    }
+
+    private record Failure(RuntimeException exception) {}
+}
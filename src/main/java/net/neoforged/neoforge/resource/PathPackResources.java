@@ -11,8 +11,14 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import net.minecraft.FileUtil;
@@ -34,6 +40,16 @@ import org.slf4j.Logger;
 public class PathPackResources extends AbstractPackResources {
     private static final Logger LOGGER = LogUtils.getLogger();
     private final Path source;
+    /**
+     * Whether the files of the pack are indexed, which is the case for packs backed by an archive.
+     * The files of an archive do not change while the game runs, unlike the files of a folder, which can be edited during development.
+     */
+    private final boolean indexed;
+    /**
+     * The files of each pack type, keyed by namespace and then by path, built the first time the pack type is queried.
+     * Empty if the pack type cannot be indexed.
+     */
+    private final Map<PackType, Optional<Map<String, NavigableMap<String, Path>>>> indices = new ConcurrentHashMap<>();
 
     /**
      * Constructs a java.nio.Path-based resource pack.
@@ -46,6 +62,7 @@ public class PathPackResources extends AbstractPackResources {
     public PathPackResources(String packId, boolean isBuiltin, final Path source) {
         super(packId, isBuiltin);
         this.source = source;
+        this.indexed = !Files.isDirectory(source);
     }
 
     /**
@@ -81,16 +98,72 @@ public class PathPackResources extends AbstractPackResources {
         return IoSupplier.create(path);
     }
 
+    /**
+     * {@return the index of the files of the given pack type, or {@code null} if the files are not indexed}
+     */
+    @Nullable
+    private Map<String, NavigableMap<String, Path>> getIndex(PackType type) {
+        if (!indexed)
+            return null;
+        return indices.computeIfAbsent(type, this::buildIndex).orElse(null);
+    }
+
+    private Optional<Map<String, NavigableMap<String, Path>>> buildIndex(PackType type) {
+        Path root = resolve(type.getDirectory());
+        if (!Files.isDirectory(root))
+            return Optional.empty();
+        Map<String, NavigableMap<String, Path>> index = new HashMap<>();
+        try (Stream<Path> namespaces = Files.list(root)) {
+            for (Path namespaceRoot : namespaces.filter(Files::isDirectory).toList()) {
+                String namespace = namespaceRoot.getFileName().toString().replaceAll("/$", "");
+                if (namespace.isEmpty())
+                    continue;
+                NavigableMap<String, Path> files = new TreeMap<>();
+                try (Stream<Path> walker = Files.walk(namespaceRoot)) {
+                    walker.filter(Files::isRegularFile).forEach(file -> {
+                        String path = namespaceRoot.relativize(file).toString().replace('\\', '/');
+                        if (ResourceLocation.isValidPath(path))
+                            files.put(path, file);
+                        else
+                            LOGGER.warn("Invalid path in pack: {}:{}, ignoring", namespace, path);
+                    });
+                }
+                index.put(namespace, Collections.unmodifiableNavigableMap(files));
+            }
+        } catch (IOException e) {
+            LOGGER.error("Failed to index the {} of pack {}, falling back to file system lookups", type.getDirectory(), packId(), e);
+            return Optional.empty();
+        }
+        return Optional.of(Map.copyOf(index));
+    }
+
     @Override
     public void listResources(PackType type, String namespace, String path, ResourceOutput resourceOutput) {
         FileUtil.decomposePath(path).get()
-                .ifLeft(parts -> net.minecraft.server.packs.PathPackResources.listPath(namespace, resolve(type.getDirectory(), namespace).toAbsolutePath(), parts, resourceOutput))
+                .ifLeft(parts -> {
+                    Map<String, NavigableMap<String, Path>> index = getIndex(type);
+                    if (index == null) {
+                        net.minecraft.server.packs.PathPackResources.listPath(namespace, resolve(type.getDirectory(), namespace).toAbsolutePath(), parts, resourceOutput);
+                        return;
+                    }
+                    NavigableMap<String, Path> files = index.get(namespace);
+                    if (files == null)
+                        return;
+                    String joined = String.join("/", parts);
+                    Path file = files.get(joined);
+                    if (file != null)
+                        resourceOutput.accept(new ResourceLocation(namespace, joined), IoSupplier.create(file));
+                    String prefix = joined.isEmpty() ? "" : joined + "/";
+                    files.subMap(prefix, true, prefix + Character.MAX_VALUE, false)
+                            .forEach((filePath, entry) -> resourceOutput.accept(new ResourceLocation(namespace, filePath), IoSupplier.create(entry)));
+                })
                 .ifRight(dataResult -> LOGGER.error("Invalid path {}: {}", path, dataResult.message()));
     }
 
     @Override
     public Set<String> getNamespaces(PackType type) {
-        return getNamespacesFromDisk(type);
+        Map<String, NavigableMap<String, Path>> index = getIndex(type);
+        return index != null ? index.keySet() : getNamespacesFromDisk(type);
     }
 
     @NotNull
@@ -118,7 +191,14 @@ public class PathPackResources extends AbstractPackResources {
 
     @Override
     public IoSupplier<InputStream> getResource(PackType type, ResourceLocation location) {
-        return this.getRootResource(getPathFromLocation(location.getPath().startsWith("lang/") ? PackType.CLIENT_RESOURCES : type, location));
+        PackType actualType = location.getPath().startsWith("lang/") ? PackType.CLIENT_RESOURCES : type;
+        Map<String, NavigableMap<String, Path>> index = getIndex(actualType);
+        if (index != null) {
+            NavigableMap<String, Path> files = index.get(location.getNamespace());
+            Path file = files != null ? files.get(location.getPath()) : null;
+            return file != null ? IoSupplier.create(file) : null;
+        }
+        return this.getRootResource(getPathFromLocation(actualType, location));
     }
 
     private static String[] getPathFromLocation(PackType type, ResourceLocation location) {
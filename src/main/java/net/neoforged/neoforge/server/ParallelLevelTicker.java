@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.neoforge.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import net.minecraft.CrashReport;
+import net.minecraft.ReportedException;
+import net.minecraft.Util;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.profiling.InactiveProfiler;
+import net.minecraft.world.entity.Entity;
+import net.neoforged.neoforge.common.NeoForgeConfig;
+import net.neoforged.neoforge.common.util.ITeleporter;
+import net.neoforged.neoforge.event.EventHooks;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Ticks the levels of a server in parallel, when enabled with the experimental {@link NeoForgeConfig.Server#parallelLevelTicking} option.
+ * <p>
+ * Every level is ticked on a worker thread, which is made the owning thread of the level and of its chunk source for the duration
+ * of the tick. Meanwhile, the server thread runs the tasks submitted to the chunk sources of the levels that are done ticking,
+ * so that a level ticking on a worker thread that requests a chunk of another level waits for that level to be done ticking
+ * instead of blocking forever. All level ticks are joined before the server moves on to ticking connections and players.
+ * <p>
+ * While levels tick in parallel, the following rules apply:
+ * <ul>
+ * <li>{@link net.neoforged.neoforge.event.TickEvent.LevelTickEvent LevelTickEvent} and every event fired from within a level tick
+ * (entity, block, explosion events...) are fired on a worker thread. Handlers must only access the level of the event.</li>
+ * <li>Work that touches other levels or global server state must be scheduled with {@link #runAfterLevelTicks(Runnable)},
+ * it is then run on the server thread once all levels are done ticking.</li>
+ * <li>Entities that change dimension, entities and players teleported to another level, and entities added to another level
+ * are moved or added after all levels are done ticking. The teleport command fails for targets in another level.</li>
+ * <li>Advancements are awarded after all levels are done ticking, since the listeners of criterion triggers are shared by all players.</li>
+ * <li>Two levels that request chunks of each other during the same tick wait for each other forever, so levels must not load chunks
+ * of other levels during their tick.</li>
+ * </ul>
+ * The saved data of a level, which other levels access for maps, is synchronized. Other global state is not, so levels are ticked
+ * sequentially, as usual, whenever a level tick could reach it:
+ * <ul>
+ * <li>if the server profiler is active,</li>
+ * <li>if the scoreboard has objectives, since entity deaths and kills update the scores,</li>
+ * <li>if command blocks are enabled, since commands run from a level tick can modify any state of the server.</li>
+ * </ul>
+ */
+public final class ParallelLevelTicker {
+    private static final Logger LOGGER = LogManager.getLogger();
+    /**
+     * The deferred tasks of the level ticked by the current thread.
+     */
+    private static final ThreadLocal<List<Runnable>> CURRENT_DEFERRED_TASKS = new ThreadLocal<>();
+    /**
+     * The longest time the server thread waits for levels to be done ticking before checking their chunk sources for tasks again.
+     * Submitting a task to a chunk source wakes up its owning thread earlier.
+     */
+    private static final long WAIT_NANOS = 100_000L;
+    @Nullable
+    private static ForkJoinPool pool;
+
+    private final ServerLevel[] levels;
+    private final long[] tickTimes;
+    private final List<List<Runnable>> deferredTasks;
+
+    private ParallelLevelTicker(ServerLevel[] levels) {
+        this.levels = levels;
+        this.tickTimes = new long[levels.length];
+        this.deferredTasks = new ArrayList<>(levels.length);
+        for (int i = 0; i < levels.length; i++) {
+            deferredTasks.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Ticks all levels in parallel if parallel ticking is enabled and possible.
+     *
+     * @return the ticker holding the tick times of the levels, or {@code null} if the levels must be ticked sequentially by the caller
+     */
+    @ApiStatus.Internal
+    @Nullable
+    public static ParallelLevelTicker tickLevels(MinecraftServer server, ServerLevel[] levels, BooleanSupplier haveTime) {
+        if (levels.length < 2 || !NeoForgeConfig.SERVER.parallelLevelTicking.get() || server.getProfiler() != InactiveProfiler.INSTANCE) {
+            return null;
+        }
+        if (!server.getScoreboard().getObjectives().isEmpty() || server.isCommandBlockEnabled()) {
+            return null;
+        }
+        ParallelLevelTicker ticker = new ParallelLevelTicker(levels);
+        ticker.tick(haveTime);
+        return ticker;
+    }
+
+    private void tick(BooleanSupplier haveTime) {
+        ForkJoinPool pool = getPool();
+        Throwable[] failures = new Throwable[levels.length];
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[levels.length];
+        for (int i = 0; i < levels.length; i++) {
+            int index = i;
+            tasks[i] = pool.submit(() -> tickOffThread(index, haveTime, failures));
+        }
+        awaitLevelTicks(tasks);
+
+        for (int i = 0; i < levels.length; i++) {
+            if (failures[i] instanceof ReportedException reportedException)
+                throw reportedException;
+            else if (failures[i] != null)
+                throw new ReportedException(createCrashReport(levels[i], failures[i]));
+        }
+        for (List<Runnable> tasksOfLevel : deferredTasks) {
+            tasksOfLevel.forEach(Runnable::run);
+        }
+    }
+
+    /**
+     * Waits for all levels to be done ticking, running the tasks submitted to the chunk sources of the levels that are done ticking,
+     * which are owned by the server thread again, such as the chunk requests of the levels that are still ticking.
+     */
+    private void awaitLevelTicks(ForkJoinTask<?>[] tasks) {
+        boolean ticking = true;
+        while (ticking) {
+            ticking = false;
+            boolean ranTask = false;
+            for (int i = 0; i < levels.length; i++) {
+                if (!tasks[i].isDone())
+                    ticking = true;
+                else if (levels[i].getChunkSource().pollTask())
+                    ranTask = true;
+            }
+            if (ticking && !ranTask)
+                LockSupport.parkNanos(this, WAIT_NANOS);
+        }
+    }
+
+    private void tickOffThread(int index, BooleanSupplier haveTime, Throwable[] failures) {
+        ServerLevel level = levels[index];
+        Thread serverThread = level.thread;
+        level.thread = Thread.currentThread();
+        level.getChunkSource().mainThread = Thread.currentThread();
+        try {
+            tickLevel(index, haveTime, failures);
+        } finally {
+            level.getChunkSource().mainThread = serverThread;
+            level.thread = serverThread;
+        }
+    }
+
+    private void tickLevel(int index, BooleanSupplier haveTime, Throwable[] failures) {
+        ServerLevel level = levels[index];
+        long tickStart = Util.getNanos();
+        CURRENT_DEFERRED_TASKS.set(deferredTasks.get(index));
+        try {
+            EventHooks.onPreLevelTick(level, haveTime);
+            level.tick(haveTime);
+            EventHooks.onPostLevelTick(level, haveTime);
+        } catch (Throwable throwable) {
+            failures[index] = throwable;
+        } finally {
+            CURRENT_DEFERRED_TASKS.remove();
+            tickTimes[index] = Util.getNanos() - tickStart;
+        }
+    }
+
+    private static CrashReport createCrashReport(ServerLevel level, Throwable throwable) {
+        CrashReport crashreport = CrashReport.forThrowable(throwable, "Exception ticking world");
+        level.fillReportDetails(crashreport);
+        return crashreport;
+    }
+
+    /**
+     * {@return the time it took to tick the given level, in nanoseconds}
+     */
+    @ApiStatus.Internal
+    public long getTickTime(ServerLevel level) {
+        for (int i = 0; i < levels.length; i++) {
+            if (levels[i] == level)
+                return tickTimes[i];
+        }
+        return 0;
+    }
+
+    /**
+     * {@return {@code true} if the current thread is ticking a level while levels are ticked in parallel}
+     */
+    public static boolean isTickingInParallel() {
+        return CURRENT_DEFERRED_TASKS.get() != null;
+    }
+
+    /**
+     * Runs a task once all levels are done ticking, if levels are currently ticked in parallel, or immediately otherwise.
+     * Deferred tasks run on the server thread, in the order of the levels and then in the order they were scheduled in.
+     */
+    public static void runAfterLevelTicks(Runnable task) {
+        List<Runnable> deferredTasks = CURRENT_DEFERRED_TASKS.get();
+        if (deferredTasks == null) {
+            task.run();
+        } else {
+            deferredTasks.add(task);
+        }
+    }
+
+    /**
+     * Defers a dimension change until all levels are done ticking, if levels are currently ticked in parallel.
+     *
+     * @return {@code true} if the dimension change was deferred and must not happen now
+     */
+    @ApiStatus.Internal
+    public static boolean deferDimensionChange(Entity entity, ServerLevel destination, ITeleporter teleporter) {
+        if (!isTickingInParallel())
+            return false;
+        runAfterLevelTicks(() -> {
+            if (!entity.isRemoved())
+                entity.changeDimension(destination, teleporter);
+        });
+        return true;
+    }
+
+    /**
+     * Defers a teleport to another level until all levels are done ticking, if levels are currently ticked in parallel.
+     *
+     * @return {@code true} if the teleport was deferred and must not happen now
+     */
+    @ApiStatus.Internal
+    public static boolean deferTeleport(Entity entity, Runnable teleport) {
+        if (!isTickingInParallel())
+            return false;
+        runAfterLevelTicks(() -> {
+            if (!entity.isRemoved())
+                teleport.run();
+        });
+        return true;
+    }
+
+    /**
+     * Defers adding an entity to a level until all levels are done ticking, if the current thread is ticking another level in parallel.
+     *
+     * @return {@code true} if adding the entity was deferred and must not happen now
+     */
+    @ApiStatus.Internal
+    public static boolean deferAddEntity(ServerLevel level, Runnable add) {
+        if (!isTickingInParallel() || level.thread == Thread.currentThread())
+            return false;
+        runAfterLevelTicks(add);
+        return true;
+    }
+
+    /**
+     * Defers a change of the advancements of a player until all levels are done ticking, if levels are currently ticked in parallel.
+     *
+     * @return {@code true} if the change was deferred and must not happen now
+     */
+    @ApiStatus.Internal
+    public static boolean deferAdvancementChange(Runnable change) {
+        if (!isTickingInParallel())
+            return false;
+        runAfterLevelTicks(change);
+        return true;
+    }
+
+    private static synchronized ForkJoinPool getPool() {
+        if (pool == null) {
+            int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+            pool = new ForkJoinPool(parallelism, forkJoinPool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+                thread.setName("Level Tick Worker-" + thread.getPoolIndex());
+                thread.setDaemon(true);
+                return thread;
+            }, (thread, throwable) -> LOGGER.error("Uncaught exception in level tick worker {}", thread.getName(), throwable), false);
+        }
+        return pool;
+    }
+
+    /**
+     * Stops the worker threads, called when the server stops.
+     */
+    @ApiStatus.Internal
+    public static synchronized void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+}
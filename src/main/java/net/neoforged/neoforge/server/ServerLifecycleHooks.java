@@ -41,9 +41,12 @@ import net.neoforged.fml.ModLoadingWarning;
 import net.neoforged.fml.config.ConfigTracker;
 import net.neoforged.fml.config.ModConfig;
 import net.neoforged.neoforge.common.NeoForge;
+import net.neoforged.neoforge.common.NeoForgeConfig;
+import net.neoforged.neoforge.common.loot.LootModifierManager;
 import net.neoforged.neoforge.common.util.LogicalSidedProvider;
 import net.neoforged.neoforge.common.world.BiomeModifier;
 import net.neoforged.neoforge.common.world.StructureModifier;
+import net.neoforged.neoforge.common.world.WorldgenModifiers;
 import net.neoforged.neoforge.event.server.ServerAboutToStartEvent;
 import net.neoforged.neoforge.event.server.ServerStartedEvent;
 import net.neoforged.neoforge.event.server.ServerStartingEvent;
@@ -54,11 +57,13 @@ import net.neoforged.neoforge.network.ConnectionType;
 import net.neoforged.neoforge.network.NetworkConstants;
 import net.neoforged.neoforge.network.NetworkHooks;
 import net.neoforged.neoforge.network.NetworkRegistry;
+import net.neoforged.neoforge.network.PlayerSpatialIndex;
 import net.neoforged.neoforge.registries.ForgeRegistries;
 import net.neoforged.neoforge.registries.ForgeRegistries.Keys;
 import net.neoforged.neoforge.registries.GameData;
 import net.neoforged.neoforge.resource.PathPackResources;
 import net.neoforged.neoforge.server.permission.PermissionAPI;
+import net.neoforged.neoforge.server.timings.TimeTracker;
 import net.neoforged.neoforgespi.language.IModInfo;
 import net.neoforged.neoforgespi.locating.IModFile;
 import org.apache.logging.log4j.LogManager;
@@ -91,6 +96,9 @@ public class ServerLifecycleHooks {
         // on the dedi server we need to force the stuff to setup properly
         LogicalSidedProvider.setServer(() -> server);
         ConfigTracker.INSTANCE.loadConfigs(ModConfig.Type.SERVER, getServerConfigPath(server));
+        boolean continuousTimings = NeoForgeConfig.SERVER.continuousTimeTracking.get();
+        TimeTracker.BLOCK_ENTITY_UPDATE.setContinuous(continuousTimings);
+        TimeTracker.ENTITY_UPDATE.setContinuous(continuousTimings);
         runModifiers(server);
         NeoForge.EVENT_BUS.post(new ServerAboutToStartEvent(server));
     }
@@ -123,6 +131,11 @@ public class ServerLifecycleHooks {
     public static void handleServerStopped(final MinecraftServer server) {
         if (!server.isDedicatedServer()) GameData.revertToFrozen();
         NeoForge.EVENT_BUS.post(new ServerStoppedEvent(server));
+        TimeTracker.BLOCK_ENTITY_UPDATE.setContinuous(false);
+        TimeTracker.ENTITY_UPDATE.setContinuous(false);
+        LootModifierManager.setTrackingTimings(false);
+        PlayerSpatialIndex.clear();
+        ParallelLevelTicker.shutdown();
         currentServer = null;
         LogicalSidedProvider.setServer(null);
         CountDownLatch latch = exitLatch;
@@ -221,12 +234,8 @@ public class ServerLifecycleHooks {
                 .toList();
 
         // Apply sorted biome modifiers to each biome.
-        registries.registryOrThrow(Registries.BIOME).holders().forEach(biomeHolder -> {
-            biomeHolder.value().modifiableBiomeInfo().applyBiomeModifiers(biomeHolder, biomeModifiers);
-        });
+        WorldgenModifiers.applyBiomeModifiers(registries.registryOrThrow(Registries.BIOME), biomeModifiers);
         // Apply sorted structure modifiers to each structure.
-        registries.registryOrThrow(Registries.STRUCTURE).holders().forEach(structureHolder -> {
-            structureHolder.value().modifiableStructureInfo().applyStructureModifiers(structureHolder, structureModifiers);
-        });
+        WorldgenModifiers.applyStructureModifiers(registries.registryOrThrow(Registries.STRUCTURE), structureModifiers);
     }
 }
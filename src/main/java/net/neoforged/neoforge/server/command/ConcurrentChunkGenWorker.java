@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.neoforge.server.command;
+
+import com.mojang.datafixers.util.Either;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import java.text.DecimalFormat;
+import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import net.minecraft.Util;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.MutableComponent;
+import net.minecraft.server.level.ChunkHolder;
+import net.minecraft.server.level.ServerChunkCache;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.TicketType;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.ChunkStatus;
+import net.neoforged.neoforge.common.WorldWorkerManager;
+
+/**
+ * Generates all chunks in a square around a center chunk, keeping many chunks in flight at once.
+ * <p>
+ * Chunks are requested by adding a ticket for them, which lets the chunk system generate them on its worker threads,
+ * instead of generating one chunk at a time on the server thread like {@link ChunkGenWorker}. A chunk is done, and its ticket
+ * released, once it reached the {@linkplain ChunkStatus#FULL full} status.
+ * Chunks are requested one region file (32x32 chunks) at a time, so that region file I/O stays mostly sequential,
+ * and regions are visited in a spiral around the center.
+ * <p>
+ * The number of chunks in flight is halved when the server's average tick time rises above {@value #TARGET_TICK_TIME} ms,
+ * and raised back up to the configured limit while it stays below. The server averages its tick time over the last
+ * {@value #ADJUSTMENT_INTERVAL} ticks, so the limit is adjusted at most once per interval, after the previous adjustment had a chance to take effect.
+ */
+public class ConcurrentChunkGenWorker implements WorldWorkerManager.IWorker {
+    private static final TicketType<ChunkPos> PREGEN_TICKET = TicketType.create("neoforge:pregen", Comparator.comparingLong(ChunkPos::toLong));
+    private static final DecimalFormat RATE_FORMAT = new DecimalFormat("#####0.0");
+    private static final int REGION_SHIFT = 5;
+    private static final int REGION_SIZE = 1 << REGION_SHIFT;
+    private static final float TARGET_TICK_TIME = 45.0F;
+    /**
+     * Number of ticks {@link net.minecraft.server.MinecraftServer#getAverageTickTime()} is averaged over.
+     */
+    private static final int ADJUSTMENT_INTERVAL = 100;
+    /**
+     * Largest radius accepted by the command, so that the number of chunks to generate fits in an {@code int} like the count of {@link ChunkGenWorker}.
+     */
+    public static final int MAX_RADIUS = 23169;
+    /**
+     * Time after which a chunk that still has not finished loading is given up on.
+     */
+    private static final long CHUNK_TIMEOUT = 5 * 60 * 1000;
+    private static final long NOTIFICATION_INTERVAL = 10 * 1000;
+
+    private final CommandSourceStack listener;
+    private final ServerLevel dim;
+    private final ChunkPos center;
+    private final int radius;
+    private final int maxInFlight;
+    private final long total;
+
+    private final int minRegionX, minRegionZ, maxRegionX, maxRegionZ;
+    /**
+     * Position in the spiral of regions around the center region, and the index of the next chunk within the current region.
+     */
+    private int regionX, regionZ, spiralLeg, spiralLegLength = 1, spiralStep, spiralDirection;
+    private int regionChunk;
+    private boolean regionsExhausted;
+
+    private final Long2ObjectOpenHashMap<InFlightChunk> inFlight = new Long2ObjectOpenHashMap<>();
+    private int inFlightLimit;
+    private int lastAdjustmentTick;
+    private long completed;
+    private long failed;
+    private final long startTime;
+    private long lastNotificationTime;
+
+    public ConcurrentChunkGenWorker(CommandSourceStack listener, ChunkPos center, int radius, ServerLevel dim, int maxInFlight) {
+        this.listener = listener;
+        this.dim = dim;
+        this.center = center;
+        this.radius = Math.min(radius, MAX_RADIUS);
+        this.maxInFlight = maxInFlight;
+        this.inFlightLimit = Math.max(1, maxInFlight / 4);
+        this.lastAdjustmentTick = dim.getServer().getTickCount();
+        this.total = (2L * this.radius + 1) * (2L * this.radius + 1);
+        this.minRegionX = (center.x - this.radius) >> REGION_SHIFT;
+        this.minRegionZ = (center.z - this.radius) >> REGION_SHIFT;
+        this.maxRegionX = (center.x + this.radius) >> REGION_SHIFT;
+        this.maxRegionZ = (center.z + this.radius) >> REGION_SHIFT;
+        this.regionX = center.x >> REGION_SHIFT;
+        this.regionZ = center.z >> REGION_SHIFT;
+        this.startTime = System.currentTimeMillis();
+        this.lastNotificationTime = startTime;
+    }
+
+    public MutableComponent getStartMessage() {
+        return Component.translatable("commands.neoforge.gen.concurrent.start", total, radius, center.x, center.z, dim.dimension().location(), maxInFlight);
+    }
+
+    @Override
+    public boolean hasWork() {
+        return !regionsExhausted || !inFlight.isEmpty();
+    }
+
+    @Override
+    public boolean doWork() {
+        long now = System.currentTimeMillis();
+        collectCompleted(now);
+        adjustInFlightLimit();
+
+        boolean submitted = false;
+        while (inFlight.size() < inFlightLimit) {
+            long next = nextChunk();
+            if (next == Long.MAX_VALUE)
+                break;
+
+            ChunkPos pos = new ChunkPos(next);
+            dim.getChunkSource().addRegionTicket(PREGEN_TICKET, pos, 0, pos);
+            inFlight.put(next, new InFlightChunk(requestFullChunk(pos), now));
+            submitted = true;
+        }
+
+        if (now - lastNotificationTime >= NOTIFICATION_INTERVAL) {
+            listener.sendSuccess(() -> Component.translatable("commands.neoforge.gen.concurrent.progress", completed, total, RATE_FORMAT.format(getChunksPerSecond(now)), inFlight.size()), true);
+            lastNotificationTime = now;
+        }
+
+        if (!hasWork()) {
+            long seconds = Math.max(1, (now - startTime) / 1000);
+            listener.sendSuccess(() -> Component.translatable("commands.neoforge.gen.concurrent.complete", completed, dim.dimension().location(), seconds, RATE_FORMAT.format(getChunksPerSecond(now)), failed), true);
+            return false;
+        }
+
+        // The chunks are generated off-thread, only come back this tick if there was room for more chunks
+        return submitted && inFlight.size() < inFlightLimit;
+    }
+
+    /**
+     * Requests the future of the given chunk reaching the full status.
+     * {@link ServerChunkCache#getChunkFuture} waits for the chunk when called on the server thread, so it is called from a background thread instead.
+     */
+    private CompletableFuture<Either<ChunkAccess, ChunkHolder.ChunkLoadingFailure>> requestFullChunk(ChunkPos pos) {
+        ServerChunkCache chunkSource = dim.getChunkSource();
+        return CompletableFuture.supplyAsync(() -> chunkSource.getChunkFuture(pos.x, pos.z, ChunkStatus.FULL, true), Util.backgroundExecutor())
+                .thenCompose(Function.identity());
+    }
+
+    private void collectCompleted(long now) {
+        for (ObjectIterator<Long2ObjectMap.Entry<InFlightChunk>> iterator = inFlight.long2ObjectEntrySet().fastIterator(); iterator.hasNext();) {
+            Long2ObjectMap.Entry<InFlightChunk> entry = iterator.next();
+            InFlightChunk chunk = entry.getValue();
+            if (chunk.future().isDone() || now - chunk.requestTime() > CHUNK_TIMEOUT) {
+                ChunkPos pos = new ChunkPos(entry.getLongKey());
+                dim.getChunkSource().removeRegionTicket(PREGEN_TICKET, pos, 0, pos);
+                iterator.remove();
+                if (chunk.isLoaded())
+                    completed++;
+                else
+                    failed++;
+            }
+        }
+    }
+
+    private void adjustInFlightLimit() {
+        int tick = dim.getServer().getTickCount();
+        if (tick - lastAdjustmentTick < ADJUSTMENT_INTERVAL)
+            return;
+        lastAdjustmentTick = tick;
+        if (dim.getServer().getAverageTickTime() > TARGET_TICK_TIME)
+            inFlightLimit = Math.max(1, inFlightLimit / 2);
+        else
+            inFlightLimit = Math.min(maxInFlight, inFlightLimit + Math.max(1, maxInFlight / 8));
+    }
+
+    private double getChunksPerSecond(long now) {
+        return completed * 1000.0 / Math.max(1, now - startTime);
+    }
+
+    /**
+     * {@return the packed position of the next chunk to generate, or {@link Long#MAX_VALUE} if all chunks were requested}
+     */
+    private long nextChunk() {
+        while (!regionsExhausted) {
+            while (regionChunk < REGION_SIZE * REGION_SIZE) {
+                int x = (regionX << REGION_SHIFT) + (regionChunk & (REGION_SIZE - 1));
+                int z = (regionZ << REGION_SHIFT) + (regionChunk >> REGION_SHIFT);
+                regionChunk++;
+                if (Math.abs(x - center.x) <= radius && Math.abs(z - center.z) <= radius)
+                    return ChunkPos.asLong(x, z);
+            }
+            nextRegion();
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Advances to the next region in the spiral that overlaps the generated area.
+     */
+    private void nextRegion() {
+        regionChunk = 0;
+        do {
+            if (spiralLegLength > 2 * Math.max(Math.max(maxRegionX - minRegionX, maxRegionZ - minRegionZ), 1) + 2) {
+                regionsExhausted = true;
+                return;
+            }
+            // Walk right, down, left, up, growing the leg length every two legs
+            switch (spiralDirection) {
+                case 0 -> regionX++;
+                case 1 -> regionZ++;
+                case 2 -> regionX--;
+                default -> regionZ--;
+            }
+            if (++spiralStep == spiralLegLength) {
+                spiralStep = 0;
+                spiralDirection = (spiralDirection + 1) & 3;
+                if (++spiralLeg % 2 == 0)
+                    spiralLegLength++;
+            }
+        } while (regionX < minRegionX || regionX > maxRegionX || regionZ < minRegionZ || regionZ > maxRegionZ);
+    }
+
+    /**
+     * A chunk that was requested and has not reached the full status yet.
+     *
+     * @param future      completes once the chunk reached the full status or failed to load
+     * @param requestTime the time the chunk was requested at
+     */
+    private record InFlightChunk(CompletableFuture<Either<ChunkAccess, ChunkHolder.ChunkLoadingFailure>> future, long requestTime) {
+        private boolean isLoaded() {
+            if (!future.isDone() || future.isCompletedExceptionally())
+                return false;
+            return future.join().left().isPresent();
+        }
+    }
+}
@@ -15,12 +15,23 @@ import net.minecraft.commands.arguments.DimensionArgument;
 import net.minecraft.commands.arguments.coordinates.BlockPosArgument;
 import net.minecraft.core.BlockPos;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
 import net.neoforged.neoforge.common.WorldWorkerManager;
 
 class GenerateCommand {
+    private static final int DEFAULT_MAX_IN_FLIGHT = 256;
+
     static ArgumentBuilder<CommandSourceStack, ?> register() {
         return Commands.literal("generate")
                 .requires(cs -> cs.hasPermission(4)) //permission
+                .then(Commands.literal("concurrent")
+                        .then(Commands.argument("pos", BlockPosArgument.blockPos())
+                                .then(Commands.argument("radius", IntegerArgumentType.integer(0, ConcurrentChunkGenWorker.MAX_RADIUS))
+                                        .then(Commands.argument("dim", DimensionArgument.dimension())
+                                                .then(Commands.argument("maxInFlight", IntegerArgumentType.integer(1))
+                                                        .executes(ctx -> executeConcurrent(ctx.getSource(), BlockPosArgument.getSpawnablePos(ctx, "pos"), getInt(ctx, "radius"), DimensionArgument.getDimension(ctx, "dim"), getInt(ctx, "maxInFlight"))))
+                                                .executes(ctx -> executeConcurrent(ctx.getSource(), BlockPosArgument.getSpawnablePos(ctx, "pos"), getInt(ctx, "radius"), DimensionArgument.getDimension(ctx, "dim"), DEFAULT_MAX_IN_FLIGHT)))
+                                        .executes(ctx -> executeConcurrent(ctx.getSource(), BlockPosArgument.getSpawnablePos(ctx, "pos"), getInt(ctx, "radius"), ctx.getSource().getLevel(), DEFAULT_MAX_IN_FLIGHT)))))
                 .then(Commands.argument("pos", BlockPosArgument.blockPos())
                         .then(Commands.argument("count", IntegerArgumentType.integer(1))
                                 .then(Commands.argument("dim", DimensionArgument.dimension())
@@ -43,4 +54,12 @@ class GenerateCommand {
 
         return 0;
     }
+
+    private static int executeConcurrent(CommandSourceStack source, BlockPos pos, int radius, ServerLevel dim, int maxInFlight) throws CommandRuntimeException {
+        ConcurrentChunkGenWorker worker = new ConcurrentChunkGenWorker(source, new ChunkPos(pos), radius, dim, maxInFlight);
+        source.sendSuccess(worker::getStartMessage, true);
+        WorldWorkerManager.addWorker(worker);
+
+        return 0;
+    }
 }
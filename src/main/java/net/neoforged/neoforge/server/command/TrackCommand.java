@@ -7,12 +7,18 @@ package net.neoforged.neoforge.server.command;
 
 import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.builder.ArgumentBuilder;
+import com.mojang.logging.LogUtils;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.function.Function;
+import net.minecraft.Util;
 import net.minecraft.commands.CommandRuntimeException;
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.Commands;
@@ -20,11 +26,16 @@ import net.minecraft.core.BlockPos;
 import net.minecraft.network.chat.Component;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.level.block.entity.BlockEntity;
+import net.neoforged.neoforge.common.NeoForgeEventHandler;
+import net.neoforged.neoforge.common.loot.LootModifierManager;
 import net.neoforged.neoforge.registries.ForgeRegistries;
+import net.neoforged.neoforge.server.timings.ContinuousTimings;
 import net.neoforged.neoforge.server.timings.ObjectTimings;
 import net.neoforged.neoforge.server.timings.TimeTracker;
+import org.slf4j.Logger;
 
 class TrackCommand {
+    private static final Logger LOGGER = LogUtils.getLogger();
     private static final DecimalFormat TIME_FORMAT = new DecimalFormat("#####0.00");
 
     static ArgumentBuilder<CommandSourceStack, ?> register() {
@@ -33,7 +44,147 @@ class TrackCommand {
                 .then(ResetTrackingCommand.register())
                 .then(TrackResultsEntity.register())
                 .then(TrackResultsBlockEntity.register())
-                .then(StartTrackingCommand.register());
+                .then(StartTrackingCommand.register())
+                .then(ContinuousTrackingCommand.register())
+                .then(ContinuousResults.registerTypes())
+                .then(ContinuousResults.registerChunks())
+                .then(DumpCommand.register())
+                .then(LootModifierResults.register());
+    }
+
+    private static String formatNanos(double nanos) {
+        double micros = nanos / 1000;
+        return (micros > 1000 ? TIME_FORMAT.format(micros / 1000) : TIME_FORMAT.format(micros)) + (micros < 1000 ? "\u03bcs" : "ms");
+    }
+
+    private static class ContinuousTrackingCommand {
+        static ArgumentBuilder<CommandSourceStack, ?> register() {
+            return Commands.literal("continuous")
+                    .requires(cs -> cs.hasPermission(2)) //permission
+                    .then(Commands.literal("enable")
+                            .then(Commands.literal("te").executes(ctx -> setContinuous(ctx.getSource(), TimeTracker.BLOCK_ENTITY_UPDATE, "te", true)))
+                            .then(Commands.literal("entity").executes(ctx -> setContinuous(ctx.getSource(), TimeTracker.ENTITY_UPDATE, "entity", true))))
+                    .then(Commands.literal("disable")
+                            .then(Commands.literal("te").executes(ctx -> setContinuous(ctx.getSource(), TimeTracker.BLOCK_ENTITY_UPDATE, "te", false)))
+                            .then(Commands.literal("entity").executes(ctx -> setContinuous(ctx.getSource(), TimeTracker.ENTITY_UPDATE, "entity", false))));
+        }
+
+        private static int setContinuous(CommandSourceStack source, TimeTracker<?> tracker, String name, boolean continuous) {
+            tracker.setContinuous(continuous);
+            source.sendSuccess(() -> Component.translatable(continuous ? "commands.neoforge.tracking.continuous.enabled" : "commands.neoforge.tracking.continuous.disabled", name), true);
+            return 0;
+        }
+    }
+
+    private static class ContinuousResults {
+        static ArgumentBuilder<CommandSourceStack, ?> registerTypes() {
+            return Commands.literal("types")
+                    .then(Commands.literal("te").executes(ctx -> types(ctx.getSource(), TimeTracker.BLOCK_ENTITY_UPDATE, "te")))
+                    .then(Commands.literal("entity").executes(ctx -> types(ctx.getSource(), TimeTracker.ENTITY_UPDATE, "entity")));
+        }
+
+        static ArgumentBuilder<CommandSourceStack, ?> registerChunks() {
+            return Commands.literal("chunks")
+                    .then(Commands.literal("te").executes(ctx -> chunks(ctx.getSource(), TimeTracker.BLOCK_ENTITY_UPDATE, "te")))
+                    .then(Commands.literal("entity").executes(ctx -> chunks(ctx.getSource(), TimeTracker.ENTITY_UPDATE, "entity")));
+        }
+
+        private static int types(CommandSourceStack source, TimeTracker<?> tracker, String name) {
+            if (!tracker.isContinuous()) {
+                source.sendFailure(Component.translatable("commands.neoforge.tracking.continuous.not_enabled", name));
+                return 0;
+            }
+            List<ContinuousTimings.TypeTimings> timings = new ArrayList<>(tracker.getContinuousTimings().getTypeTimings());
+            if (timings.isEmpty()) {
+                source.sendSuccess(() -> Component.translatable("commands.neoforge.tracking.no_data"), true);
+                return 0;
+            }
+            timings.sort(Comparator.comparingLong(ContinuousTimings.TypeTimings::totalNanos).reversed());
+            timings.stream().limit(10).forEach(data -> source.sendSuccess(() -> Component.translatable("commands.neoforge.tracking.continuous.type_entry",
+                    data.type(), data.count(), formatNanos(data.getAverageNanos()), formatNanos(data.getPercentileNanos(0.99)), formatNanos(data.maxNanos()), formatNanos(data.totalNanos())), true));
+            return timings.size();
+        }
+
+        private static int chunks(CommandSourceStack source, TimeTracker<?> tracker, String name) {
+            if (!tracker.isContinuous()) {
+                source.sendFailure(Component.translatable("commands.neoforge.tracking.continuous.not_enabled", name));
+                return 0;
+            }
+            List<ContinuousTimings.ChunkTimings> timings = new ArrayList<>(tracker.getContinuousTimings().getChunkTimings());
+            if (timings.isEmpty()) {
+                source.sendSuccess(() -> Component.translatable("commands.neoforge.tracking.no_data"), true);
+                return 0;
+            }
+            timings.sort(Comparator.comparingLong(ContinuousTimings.ChunkTimings::totalNanos).reversed());
+            timings.stream().limit(10).forEach(data -> source.sendSuccess(() -> Component.translatable("commands.neoforge.tracking.continuous.chunk_entry",
+                    data.dimension().location().toString(), data.pos().x, data.pos().z, data.count(), formatNanos(data.totalNanos())), true));
+            return timings.size();
+        }
+    }
+
+    private static class LootModifierResults {
+        static ArgumentBuilder<CommandSourceStack, ?> register() {
+            return Commands.literal("loot_modifiers")
+                    .requires(cs -> cs.hasPermission(2)) //permission
+                    .executes(ctx -> results(ctx.getSource()))
+                    .then(Commands.literal("enable").executes(ctx -> setTracking(ctx.getSource(), true)))
+                    .then(Commands.literal("disable").executes(ctx -> setTracking(ctx.getSource(), false)))
+                    .then(Commands.literal("reset")
+                            .executes(ctx -> {
+                                NeoForgeEventHandler.getLootModifierManager().resetTimings();
+                                ctx.getSource().sendSuccess(() -> Component.translatable("commands.neoforge.tracking.loot_modifiers.reset"), true);
+                                return 0;
+                            }));
+        }
+
+        private static int setTracking(CommandSourceStack source, boolean tracking) {
+            LootModifierManager.setTrackingTimings(tracking);
+            source.sendSuccess(() -> Component.translatable(tracking ? "commands.neoforge.tracking.loot_modifiers.enabled" : "commands.neoforge.tracking.loot_modifiers.disabled"), true);
+            return 0;
+        }
+
+        private static int results(CommandSourceStack source) {
+            if (!LootModifierManager.isTrackingTimings()) {
+                source.sendFailure(Component.translatable("commands.neoforge.tracking.loot_modifiers.not_enabled"));
+                return 0;
+            }
+            List<LootModifierManager.ModifierTimings> timings = new ArrayList<>(NeoForgeEventHandler.getLootModifierManager().getTimings());
+            timings.removeIf(data -> data.count() == 0);
+            if (timings.isEmpty()) {
+                source.sendSuccess(() -> Component.translatable("commands.neoforge.tracking.no_data"), true);
+                return 0;
+            }
+            timings.sort(Comparator.comparingLong(LootModifierManager.ModifierTimings::totalNanos).reversed());
+            timings.stream().limit(10).forEach(data -> source.sendSuccess(() -> Component.translatable("commands.neoforge.tracking.loot_modifiers.entry",
+                    data.id().toString(), data.count(), formatNanos(data.getAverageNanos()), formatNanos(data.totalNanos())), true));
+            return timings.size();
+        }
+    }
+
+    private static class DumpCommand {
+        static ArgumentBuilder<CommandSourceStack, ?> register() {
+            return Commands.literal("dump")
+                    .requires(cs -> cs.hasPermission(2)) //permission
+                    .executes(ctx -> {
+                        CommandSourceStack source = ctx.getSource();
+                        Path path = source.getServer().getServerDirectory().toPath().resolve("debug").resolve("neoforge-timings-" + Util.getFilenameFormattedDateTime() + ".csv");
+                        try {
+                            Files.createDirectories(path.getParent());
+                            try (Writer writer = Files.newBufferedWriter(path)) {
+                                writer.write("# Block entities\n");
+                                TimeTracker.BLOCK_ENTITY_UPDATE.getContinuousTimings().write(writer);
+                                writer.write("\n# Entities\n");
+                                TimeTracker.ENTITY_UPDATE.getContinuousTimings().write(writer);
+                            }
+                        } catch (IOException e) {
+                            LOGGER.error("Failed to write timings data to {}", path, e);
+                            source.sendFailure(Component.translatable("commands.neoforge.tracking.continuous.dump_failed"));
+                            return 0;
+                        }
+                        source.sendSuccess(() -> Component.translatable("commands.neoforge.tracking.continuous.dumped", path.toString()), true);
+                        return 1;
+                    });
+        }
     }
 
     private static class StartTrackingCommand {
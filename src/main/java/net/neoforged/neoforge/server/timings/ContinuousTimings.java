@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.neoforge.server.timings;
+
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import net.minecraft.core.Registry;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+
+/**
+ * Always-on aggregation of update times, used by {@link TimeTracker} when continuous tracking is enabled.
+ * <p>
+ * Timings are aggregated per object type (indexed by the registry id of the type) and per chunk, using only primitive arrays and
+ * primitive-keyed maps so that recording a sample does not allocate in the steady state.
+ * Each type additionally keeps a histogram with power-of-two nanosecond buckets.
+ * <p>
+ * Samples are only recorded for objects in server levels. Each level records into its own data, so that levels ticked in parallel
+ * do not contend, and the data of a chunk is discarded when the chunk is unloaded.
+ *
+ * @param <T> the type of the tracked objects
+ * @param <R> the type of the registry entry used to classify tracked objects
+ */
+public class ContinuousTimings<T, R> {
+    /**
+     * Number of histogram buckets kept for each type.
+     * Bucket {@code 0} contains samples below {@code 1024ns}, bucket {@code i > 0} contains samples in {@code [2^(i+9), 2^(i+10))}
+     * and the last bucket contains everything above.
+     */
+    public static final int HISTOGRAM_BUCKETS = 24;
+    private static final int HISTOGRAM_SHIFT = 10;
+    private static final int INITIAL_TYPE_CAPACITY = 64;
+
+    private final Registry<R> typeRegistry;
+    private final Function<T, R> typeGetter;
+    private final Function<T, Level> levelGetter;
+    private final ToLongFunction<T> chunkGetter;
+
+    // Copied on write, so that it can be read without locking by the threads ticking the levels
+    private volatile Reference2ObjectMap<ResourceKey<Level>, LevelData> levels = new Reference2ObjectOpenHashMap<>();
+    private volatile long startTime = System.nanoTime();
+
+    /**
+     * @param typeRegistry the registry of the types used to classify tracked objects
+     * @param typeGetter   returns the type of a tracked object
+     * @param levelGetter  returns the level a tracked object is in
+     * @param chunkGetter  returns the packed {@link ChunkPos} a tracked object is in
+     */
+    public ContinuousTimings(Registry<R> typeRegistry, Function<T, R> typeGetter, Function<T, Level> levelGetter, ToLongFunction<T> chunkGetter) {
+        this.typeRegistry = typeRegistry;
+        this.typeGetter = typeGetter;
+        this.levelGetter = levelGetter;
+        this.chunkGetter = chunkGetter;
+    }
+
+    /**
+     * Records a single update of the given object.
+     *
+     * @param object the object that was updated
+     * @param nanos  the time the update took, in nanoseconds
+     */
+    void record(T object, long nanos) {
+        Level level = levelGetter.apply(object);
+        if (level == null || level.isClientSide())
+            return;
+
+        LevelData data = levels.get(level.dimension());
+        if (data == null)
+            data = createLevelData(level.dimension());
+        data.record(typeRegistry.getId(typeGetter.apply(object)), chunkGetter.applyAsLong(object), nanos);
+    }
+
+    private synchronized LevelData createLevelData(ResourceKey<Level> dimension) {
+        LevelData data = levels.get(dimension);
+        if (data == null) {
+            Reference2ObjectMap<ResourceKey<Level>, LevelData> copy = new Reference2ObjectOpenHashMap<>(levels);
+            data = new LevelData();
+            copy.put(dimension, data);
+            levels = copy;
+        }
+        return data;
+    }
+
+    static int bucket(long nanos) {
+        int bucket = 64 - Long.numberOfLeadingZeros(nanos) - HISTOGRAM_SHIFT;
+        return Math.max(0, Math.min(HISTOGRAM_BUCKETS - 1, bucket));
+    }
+
+    /**
+     * Discards the data recorded for a chunk, called when the chunk is unloaded so that the per-chunk data does not grow indefinitely.
+     *
+     * @param dimension the dimension of the chunk
+     * @param chunk     the packed {@link ChunkPos} of the chunk
+     */
+    public void removeChunk(ResourceKey<Level> dimension, long chunk) {
+        LevelData data = levels.get(dimension);
+        if (data != null)
+            data.removeChunk(chunk);
+    }
+
+    /**
+     * Clears all recorded data.
+     */
+    public synchronized void reset() {
+        levels = new Reference2ObjectOpenHashMap<>();
+        startTime = System.nanoTime();
+    }
+
+    /**
+     * {@return the time in nanoseconds since data was last reset}
+     */
+    public long getCollectionTime() {
+        return System.nanoTime() - startTime;
+    }
+
+    /**
+     * {@return the aggregated timings of every type that has been updated at least once}
+     */
+    public List<TypeTimings> getTypeTimings() {
+        long[] typeNanos = new long[0];
+        long[] typeCounts = new long[0];
+        long[] typeMax = new long[0];
+        long[] typeHistogram = new long[0];
+        for (LevelData data : levels.values()) {
+            synchronized (data) {
+                if (data.typeCounts.length > typeCounts.length) {
+                    typeNanos = Arrays.copyOf(typeNanos, data.typeCounts.length);
+                    typeCounts = Arrays.copyOf(typeCounts, data.typeCounts.length);
+                    typeMax = Arrays.copyOf(typeMax, data.typeCounts.length);
+                    typeHistogram = Arrays.copyOf(typeHistogram, data.typeHistogram.length);
+                }
+                for (int id = 0; id < data.typeCounts.length; id++) {
+                    typeNanos[id] += data.typeNanos[id];
+                    typeCounts[id] += data.typeCounts[id];
+                    typeMax[id] = Math.max(typeMax[id], data.typeMax[id]);
+                }
+                for (int i = 0; i < data.typeHistogram.length; i++)
+                    typeHistogram[i] += data.typeHistogram[i];
+            }
+        }
+
+        List<TypeTimings> list = new ArrayList<>();
+        for (int id = 0; id < typeCounts.length; id++) {
+            if (typeCounts[id] == 0)
+                continue;
+            R type = typeRegistry.byId(id);
+            ResourceLocation name = type == null ? null : typeRegistry.getKey(type);
+            if (name == null)
+                continue;
+            long[] histogram = Arrays.copyOfRange(typeHistogram, id * HISTOGRAM_BUCKETS, (id + 1) * HISTOGRAM_BUCKETS);
+            list.add(new TypeTimings(name, typeCounts[id], typeNanos[id], typeMax[id], histogram));
+        }
+        return list;
+    }
+
+    /**
+     * {@return the aggregated timings of every loaded chunk that contained an updated object}
+     */
+    public List<ChunkTimings> getChunkTimings() {
+        List<ChunkTimings> list = new ArrayList<>();
+        for (Reference2ObjectMap.Entry<ResourceKey<Level>, LevelData> entry : levels.reference2ObjectEntrySet()) {
+            LevelData data = entry.getValue();
+            synchronized (data) {
+                for (Long2LongMap.Entry chunk : data.chunkNanos.long2LongEntrySet()) {
+                    list.add(new ChunkTimings(entry.getKey(), new ChunkPos(chunk.getLongKey()), data.chunkCounts.get(chunk.getLongKey()), chunk.getLongValue()));
+                }
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Writes all recorded data as comma-separated values, first one line per type, then one line per chunk.
+     *
+     * @param out the writer to write to
+     * @throws IOException if writing fails
+     */
+    public void write(Writer out) throws IOException {
+        out.write("type,count,total_ns,average_ns,p50_ns,p99_ns,max_ns\n");
+        for (TypeTimings timings : getTypeTimings()) {
+            out.write(String.format("%s,%d,%d,%.1f,%d,%d,%d\n", timings.type(), timings.count(), timings.totalNanos(), timings.getAverageNanos(),
+                    timings.getPercentileNanos(0.5), timings.getPercentileNanos(0.99), timings.maxNanos()));
+        }
+        out.write("\ndimension,chunk_x,chunk_z,count,total_ns\n");
+        for (ChunkTimings timings : getChunkTimings()) {
+            out.write(String.format("%s,%d,%d,%d,%d\n", timings.dimension().location(), timings.pos().x, timings.pos().z, timings.count(), timings.totalNanos()));
+        }
+    }
+
+    /**
+     * The data recorded in one level. Its lock is only contended when the data is read, since a level is ticked by a single thread.
+     */
+    private static class LevelData {
+        private long[] typeNanos = new long[INITIAL_TYPE_CAPACITY];
+        private long[] typeCounts = new long[INITIAL_TYPE_CAPACITY];
+        private long[] typeMax = new long[INITIAL_TYPE_CAPACITY];
+        private long[] typeHistogram = new long[INITIAL_TYPE_CAPACITY * HISTOGRAM_BUCKETS];
+        private final Long2LongOpenHashMap chunkNanos = new Long2LongOpenHashMap();
+        private final Long2LongOpenHashMap chunkCounts = new Long2LongOpenHashMap();
+
+        private synchronized void record(int id, long chunk, long nanos) {
+            if (id >= 0) {
+                if (id >= typeCounts.length)
+                    grow(id);
+                typeNanos[id] += nanos;
+                typeCounts[id]++;
+                if (nanos > typeMax[id])
+                    typeMax[id] = nanos;
+                typeHistogram[id * HISTOGRAM_BUCKETS + bucket(nanos)]++;
+            }
+            chunkNanos.addTo(chunk, nanos);
+            chunkCounts.addTo(chunk, 1);
+        }
+
+        private synchronized void removeChunk(long chunk) {
+            chunkNanos.remove(chunk);
+            chunkCounts.remove(chunk);
+        }
+
+        private void grow(int id) {
+            int capacity = Math.max(id + 1, typeCounts.length * 2);
+            typeNanos = Arrays.copyOf(typeNanos, capacity);
+            typeCounts = Arrays.copyOf(typeCounts, capacity);
+            typeMax = Arrays.copyOf(typeMax, capacity);
+            typeHistogram = Arrays.copyOf(typeHistogram, capacity * HISTOGRAM_BUCKETS);
+        }
+    }
+
+    /**
+     * Aggregated timings of all objects of one type.
+     *
+     * @param type       the registry name of the type
+     * @param count      the number of recorded updates
+     * @param totalNanos the sum of all recorded update times
+     * @param maxNanos   the longest recorded update time
+     * @param histogram  the number of updates in each histogram bucket, see {@link #HISTOGRAM_BUCKETS}
+     */
+    public record TypeTimings(ResourceLocation type, long count, long totalNanos, long maxNanos, long[] histogram) {
+        /**
+         * {@return the average update time in nanoseconds}
+         */
+        public double getAverageNanos() {
+            return count == 0 ? 0 : (double) totalNanos / count;
+        }
+
+        /**
+         * Estimates a percentile of the update times from the histogram.
+         *
+         * @param percentile the percentile, between {@code 0} and {@code 1}
+         * @return the upper bound in nanoseconds of the histogram bucket containing the percentile
+         */
+        public long getPercentileNanos(double percentile) {
+            long target = (long) Math.ceil(count * percentile);
+            long seen = 0;
+            for (int i = 0; i < histogram.length - 1; i++) {
+                seen += histogram[i];
+                if (seen >= target)
+                    return 1L << (i + HISTOGRAM_SHIFT);
+            }
+            return maxNanos;
+        }
+    }
+
+    /**
+     * Aggregated timings of all objects in one chunk.
+     *
+     * @param dimension  the dimension of the chunk
+     * @param pos        the position of the chunk
+     * @param count      the number of recorded updates
+     * @param totalNanos the sum of all recorded update times
+     */
+    public record ChunkTimings(ResourceKey<Level> dimension, ChunkPos pos, long count, long totalNanos) {}
+}
@@ -11,11 +11,18 @@ import java.lang.ref.WeakReference;
 import java.util.Arrays;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import net.minecraft.core.SectionPos;
+import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.block.entity.BlockEntity;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * A class to assist in the collection of data to measure the update times of ticking objects {currently Tile Entities and Entities}
+ * <p>
+ * Objects may be ticked from several threads (the client and the integrated server, or levels ticked in parallel),
+ * so the timing in progress is kept per thread.
  *
  * @param <T>
  */
@@ -24,18 +31,34 @@ public class TimeTracker<T> {
     /**
      * A tracker for timing tile entity update
      */
-    public static final TimeTracker<BlockEntity> BLOCK_ENTITY_UPDATE = new TimeTracker<>();
+    public static final TimeTracker<BlockEntity> BLOCK_ENTITY_UPDATE = new TimeTracker<>(new ContinuousTimings<>(BuiltInRegistries.BLOCK_ENTITY_TYPE,
+            BlockEntity::getType, BlockEntity::getLevel, be -> ChunkPos.asLong(SectionPos.blockToSectionCoord(be.getBlockPos().getX()), SectionPos.blockToSectionCoord(be.getBlockPos().getZ()))));
     /**
      * A tracker for timing entity updates
      */
-    public static final TimeTracker<Entity> ENTITY_UPDATE = new TimeTracker<>();
+    public static final TimeTracker<Entity> ENTITY_UPDATE = new TimeTracker<>(new ContinuousTimings<>(BuiltInRegistries.ENTITY_TYPE,
+            Entity::getType, Entity::level, entity -> entity.chunkPosition().toLong()));
 
-    private boolean enabled;
-    private int trackingDuration;
+    private volatile boolean enabled;
+    private volatile int trackingDuration;
     private Map<T, int[]> timings = new MapMaker().weakKeys().makeMap();
-    private WeakReference<T> currentlyTracking;
-    private long trackTime;
-    private long timing;
+    private volatile long trackTime;
+    private final ThreadLocal<InProgress<T>> inProgress = ThreadLocal.withInitial(InProgress::new);
+
+    @Nullable
+    private final ContinuousTimings<T, ?> continuousTimings;
+    private volatile boolean continuous;
+
+    public TimeTracker() {
+        this(null);
+    }
+
+    /**
+     * @param continuousTimings the aggregator used when continuous tracking is enabled, or {@code null} if this tracker does not support continuous tracking
+     */
+    public TimeTracker(@Nullable ContinuousTimings<T, ?> continuousTimings) {
+        this.continuousTimings = continuousTimings;
+    }
 
     /**
      * Returns the timings data recorded by the tracker
@@ -46,7 +69,10 @@ public class TimeTracker<T> {
         ImmutableList.Builder<ObjectTimings<T>> builder = ImmutableList.builder();
 
         for (Map.Entry<T, int[]> entry : timings.entrySet()) {
-            builder.add(new ObjectTimings<>(entry.getKey(), Arrays.copyOfRange(entry.getValue(), 0, 99)));
+            int[] timings = entry.getValue();
+            synchronized (timings) {
+                builder.add(new ObjectTimings<>(entry.getKey(), Arrays.copyOfRange(timings, 0, 99)));
+            }
         }
         return builder.build();
     }
@@ -66,9 +92,14 @@ public class TimeTracker<T> {
      * @param tracking The object to stop timing
      */
     public void trackEnd(T tracking) {
-        if (!enabled)
+        if (!enabled && !continuous)
             return;
-        this.trackEnd(tracking, System.nanoTime());
+        long nanoTime = System.nanoTime();
+        InProgress<T> inProgress = this.inProgress.get();
+        if (continuous)
+            this.continuousTrackEnd(inProgress, tracking, nanoTime);
+        if (enabled)
+            this.trackEnd(inProgress, tracking, nanoTime);
     }
 
     /**
@@ -87,22 +118,70 @@ public class TimeTracker<T> {
      * @param toTrack The object to start timing
      */
     public void trackStart(T toTrack) {
-        if (!enabled)
+        if (!enabled && !continuous)
             return;
-        this.trackStart(toTrack, System.nanoTime());
+        long nanoTime = System.nanoTime();
+        InProgress<T> inProgress = this.inProgress.get();
+        if (continuous) {
+            inProgress.continuousTracking = toTrack;
+            inProgress.continuousTiming = nanoTime;
+        }
+        if (enabled)
+            this.trackStart(inProgress, toTrack, nanoTime);
     }
 
-    private void trackEnd(T object, long nanoTime) {
-        if (currentlyTracking == null || currentlyTracking.get() != object) {
-            currentlyTracking = null;
+    /**
+     * Enables or disables continuous tracking.
+     * <p>
+     * Unlike {@link #enable(int) timed tracking}, continuous tracking does not time out and does not keep data for individual objects.
+     * Instead, timings are aggregated per type and per chunk in a {@link ContinuousTimings}, which is cheap enough to be left enabled.
+     *
+     * @param continuous whether continuous tracking should be enabled
+     * @throws UnsupportedOperationException if this tracker does not support continuous tracking
+     */
+    public void setContinuous(boolean continuous) {
+        if (continuousTimings == null)
+            throw new UnsupportedOperationException("This tracker does not support continuous tracking");
+        if (continuous && !this.continuous)
+            continuousTimings.reset();
+        this.continuous = continuous;
+    }
+
+    /**
+     * {@return whether continuous tracking is enabled}
+     */
+    public boolean isContinuous() {
+        return continuous;
+    }
+
+    /**
+     * {@return the data aggregated by continuous tracking, or {@code null} if this tracker does not support continuous tracking}
+     */
+    @Nullable
+    public ContinuousTimings<T, ?> getContinuousTimings() {
+        return continuousTimings;
+    }
+
+    private void continuousTrackEnd(InProgress<T> inProgress, T object, long nanoTime) {
+        if (inProgress.continuousTracking != object)
+            return;
+        inProgress.continuousTracking = null;
+        continuousTimings.record(object, nanoTime - inProgress.continuousTiming);
+    }
+
+    private void trackEnd(InProgress<T> inProgress, T object, long nanoTime) {
+        if (inProgress.currentlyTracking == null || inProgress.currentlyTracking.get() != object) {
+            inProgress.currentlyTracking = null;
             return;
         }
         int[] timings = this.timings.computeIfAbsent(object, k -> new int[101]);
-        int idx = timings[100] = (timings[100] + 1) % 100;
-        timings[idx] = (int) (nanoTime - timing);
+        synchronized (timings) {
+            int idx = timings[100] = (timings[100] + 1) % 100;
+            timings[idx] = (int) (nanoTime - inProgress.timing);
+        }
     }
 
-    private void trackStart(T toTrack, long nanoTime) {
+    private void trackStart(InProgress<T> inProgress, T toTrack, long nanoTime) {
         if (trackTime == 0) {
             trackTime = nanoTime;
         } else if (trackTime + TimeUnit.NANOSECONDS.convert(trackingDuration, TimeUnit.SECONDS) < nanoTime) {
@@ -110,7 +189,19 @@ public class TimeTracker<T> {
             trackTime = 0;
         }
 
-        currentlyTracking = new WeakReference<>(toTrack);
-        timing = nanoTime;
+        inProgress.currentlyTracking = new WeakReference<>(toTrack);
+        inProgress.timing = nanoTime;
+    }
+
+    /**
+     * The timings in progress on one thread.
+     */
+    private static class InProgress<T> {
+        @Nullable
+        private WeakReference<T> currentlyTracking;
+        private long timing;
+        @Nullable
+        private T continuousTracking;
+        private long continuousTiming;
     }
 }
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.neoforge.debug;
+
+import java.util.List;
+import java.util.function.Predicate;
+import net.neoforged.fml.common.Mod;
+import net.neoforged.fml.event.lifecycle.FMLCommonSetupEvent;
+import net.neoforged.fml.javafmlmod.FMLJavaModLoadingContext;
+import net.neoforged.neoforge.common.util.RecipeMatcher;
+import org.apache.logging.log4j.LogManager;
+
+/**
+ * Various tests for {@link RecipeMatcher}, that run when the mod is loaded.
+ * If one of the tests fails, an exception will be thrown, and mod loading will fail with an error.
+ * If all tests pass, the mod will load successfully.
+ */
+@Mod(RecipeMatcherTest.MODID)
+public class RecipeMatcherTest {
+    public static final String MODID = "recipe_matcher_test";
+
+    public RecipeMatcherTest() {
+        FMLJavaModLoadingContext.get().getModEventBus().addListener(RecipeMatcherTest::runTests);
+    }
+
+    private static void runTests(FMLCommonSetupEvent commonSetupEvent) {
+        test_overlappingTests();
+        test_duplicateInputs();
+        test_unmatched();
+
+        LogManager.getLogger().info("RecipeMatcherTest ok!");
+    }
+
+    /**
+     * Ensures that an input matched by several tests is paired with the test that leaves the other inputs a match,
+     * even if pairing it with the first test that accepts it would not.
+     */
+    private static void test_overlappingTests() {
+        List<String> inputs = List.of("stone", "dirt");
+        List<Predicate<String>> tests = List.of(anyOf("stone", "dirt"), anyOf("stone"));
+        checkMatches(inputs, tests, RecipeMatcher.findMatches(inputs, tests));
+
+        // A longer chain, where every input must move away from the first test that accepts it
+        inputs = List.of("a", "b", "c", "d");
+        tests = List.of(anyOf("a", "b"), anyOf("b", "c"), anyOf("c", "d"), anyOf("a"));
+        checkMatches(inputs, tests, RecipeMatcher.findMatches(inputs, tests));
+    }
+
+    /**
+     * Ensures that equal inputs are each paired with a different test.
+     */
+    private static void test_duplicateInputs() {
+        List<String> inputs = List.of("stick", "stick", "coal", "stick");
+        List<Predicate<String>> tests = List.of(anyOf("stick"), anyOf("stick", "coal"), anyOf("stick"), anyOf("coal", "charcoal"));
+        checkMatches(inputs, tests, RecipeMatcher.findMatches(inputs, tests));
+
+        // The same test object used for several ingredients must still be matched once per ingredient
+        Predicate<String> stick = anyOf("stick");
+        inputs = List.of("stick", "stick", "stick");
+        tests = List.of(stick, stick, stick);
+        checkMatches(inputs, tests, RecipeMatcher.findMatches(inputs, tests));
+    }
+
+    /**
+     * Ensures that no pairing is returned when the inputs cannot all be paired with a different test.
+     */
+    private static void test_unmatched() {
+        // An input that no test accepts
+        checkNoMatches(List.of("stone", "glass"), List.of(anyOf("stone"), anyOf("stone", "dirt")));
+        // Two inputs that only the same single test accepts
+        checkNoMatches(List.of("stone", "stone", "dirt"), List.of(anyOf("stone", "dirt"), anyOf("dirt"), anyOf("dirt")));
+        // A test that accepts no input
+        checkNoMatches(List.of("stone", "dirt"), List.of(anyOf("stone", "dirt"), anyOf("glass")));
+        // A different number of inputs and tests
+        checkNoMatches(List.of("stone", "dirt"), List.of(anyOf("stone", "dirt")));
+    }
+
+    private static Predicate<String> anyOf(String... accepted) {
+        List<String> acceptedList = List.of(accepted);
+        return acceptedList::contains;
+    }
+
+    private static void checkMatches(List<String> inputs, List<Predicate<String>> tests, int[] matches) {
+        if (matches == null)
+            throw new AssertionError("Expected " + inputs + " to be matched.");
+        if (matches.length != inputs.size())
+            throw new AssertionError("Expected " + inputs.size() + " matches, got " + matches.length + ".");
+        boolean[] used = new boolean[tests.size()];
+        for (int input = 0; input < matches.length; input++) {
+            int test = matches[input];
+            if (used[test])
+                throw new AssertionError("Test " + test + " was matched with more than one input.");
+            used[test] = true;
+            if (!tests.get(test).test(inputs.get(input)))
+                throw new AssertionError("Input " + inputs.get(input) + " was matched with test " + test + ", which does not accept it.");
+        }
+    }
+
+    private static void checkNoMatches(List<String> inputs, List<Predicate<String>> tests) {
+        int[] matches = RecipeMatcher.findMatches(inputs, tests);
+        if (matches != null)
+            throw new AssertionError("Expected " + inputs + " not to be matched.");
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.neoforge.debug.world;
+
+import it.unimi.dsi.fastutil.longs.LongSet;
+import java.util.Map;
+import java.util.UUID;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtUtils;
+import net.minecraft.nbt.Tag;
+import net.minecraft.world.level.ChunkPos;
+import net.neoforged.fml.common.Mod;
+import net.neoforged.fml.event.lifecycle.FMLCommonSetupEvent;
+import net.neoforged.fml.javafmlmod.FMLJavaModLoadingContext;
+import net.neoforged.neoforge.common.world.ForcedChunkManager;
+import net.neoforged.neoforge.common.world.ForcedChunkManager.TicketOwner;
+import net.neoforged.neoforge.common.world.ForcedChunkManager.TicketTracker;
+import org.apache.logging.log4j.LogManager;
+
+/**
+ * Tests for the format {@link ForcedChunkManager} saves the forced chunks of mods in, that run when the mod is loaded.
+ * The tickets are read from the format used by older versions, written in the compact format and read back,
+ * and must come out unchanged.
+ * If one of the tests fails, an exception will be thrown, and mod loading will fail with an error.
+ */
+@Mod(ForcedChunkSaveFormatTest.MODID)
+public class ForcedChunkSaveFormatTest {
+    public static final String MODID = "forced_chunk_save_format_test";
+    private static final BlockPos BLOCK_A = new BlockPos(16, 64, 32);
+    private static final BlockPos BLOCK_B = new BlockPos(-48, -12, 70);
+    private static final UUID ENTITY_A = new UUID(0x0123456789ABCDEFL, 0xFEDCBA9876543210L);
+    private static final UUID ENTITY_B = new UUID(-1L, 42L);
+    private static final long CHUNK_A = ChunkPos.asLong(1, 2);
+    private static final long CHUNK_B = ChunkPos.asLong(-3, 4);
+
+    public ForcedChunkSaveFormatTest() {
+        FMLJavaModLoadingContext.get().getModEventBus().addListener(ForcedChunkSaveFormatTest::runTests);
+    }
+
+    private static void runTests(FMLCommonSetupEvent commonSetupEvent) {
+        TicketTracker<BlockPos> legacyBlocks = new TicketTracker<>();
+        TicketTracker<UUID> legacyEntities = new TicketTracker<>();
+        ForcedChunkManager.readModForcedChunks(createLegacyData(), legacyBlocks, legacyEntities);
+        checkTickets(legacyBlocks, legacyEntities);
+
+        CompoundTag compact = new CompoundTag();
+        ForcedChunkManager.writeModForcedChunks(compact, legacyBlocks, legacyEntities);
+        if (!compact.contains("ModForcedCompact", Tag.TAG_LIST) || compact.contains("ModForced"))
+            throw new AssertionError("Expected the forced chunks to be written in the compact format only.");
+
+        TicketTracker<BlockPos> blocks = new TicketTracker<>();
+        TicketTracker<UUID> entities = new TicketTracker<>();
+        ForcedChunkManager.readModForcedChunks(compact, blocks, entities);
+        checkTickets(blocks, entities);
+        checkEqual(legacyBlocks, blocks);
+        checkEqual(legacyEntities, entities);
+
+        CompoundTag empty = new CompoundTag();
+        ForcedChunkManager.writeModForcedChunks(empty, new TicketTracker<>(), new TicketTracker<>());
+        if (!empty.isEmpty())
+            throw new AssertionError("Expected nothing to be written without forced chunks.");
+
+        LogManager.getLogger().info("ForcedChunkSaveFormatTest ok!");
+    }
+
+    /**
+     * Creates forced chunks in the format used by older versions, List{modid, List{ChunkPos, List{BlockPos}, List{UUID}}}.
+     */
+    private static CompoundTag createLegacyData() {
+        ListTag chunks = new ListTag();
+        CompoundTag chunkA = new CompoundTag();
+        chunkA.putLong("Chunk", CHUNK_A);
+        chunkA.put("Blocks", listOf(NbtUtils.writeBlockPos(BLOCK_A)));
+        chunkA.put("TickingBlocks", listOf(NbtUtils.writeBlockPos(BLOCK_B)));
+        chunkA.put("Entities", listOf(NbtUtils.createUUID(ENTITY_A)));
+        chunks.add(chunkA);
+        CompoundTag chunkB = new CompoundTag();
+        chunkB.putLong("Chunk", CHUNK_B);
+        chunkB.put("Blocks", listOf(NbtUtils.writeBlockPos(BLOCK_A)));
+        chunkB.put("Entities", listOf(NbtUtils.createUUID(ENTITY_A), NbtUtils.createUUID(ENTITY_B)));
+        chunkB.put("TickingEntities", listOf(NbtUtils.createUUID(ENTITY_B)));
+        chunks.add(chunkB);
+
+        ListTag mods = new ListTag();
+        CompoundTag mod = new CompoundTag();
+        mod.putString("Mod", MODID);
+        mod.put("ModForced", chunks);
+        mods.add(mod);
+        // The tickets of mods that are not loaded are dropped
+        CompoundTag missingMod = new CompoundTag();
+        missingMod.putString("Mod", "forced_chunk_save_format_test_missing");
+        missingMod.put("ModForced", chunks.copy());
+        mods.add(missingMod);
+
+        CompoundTag nbt = new CompoundTag();
+        nbt.put("ModForced", mods);
+        return nbt;
+    }
+
+    private static ListTag listOf(Tag... tags) {
+        ListTag list = new ListTag();
+        for (Tag tag : tags)
+            list.add(tag);
+        return list;
+    }
+
+    private static void checkTickets(TicketTracker<BlockPos> blocks, TicketTracker<UUID> entities) {
+        checkChunks(blocks.getChunks(), BLOCK_A, CHUNK_A, CHUNK_B);
+        checkChunks(blocks.getTickingChunks(), BLOCK_B, CHUNK_A);
+        checkChunks(entities.getChunks(), ENTITY_A, CHUNK_A, CHUNK_B);
+        checkChunks(entities.getChunks(), ENTITY_B, CHUNK_B);
+        checkChunks(entities.getTickingChunks(), ENTITY_B, CHUNK_B);
+        checkSize("block owners", blocks.getChunks().size() + blocks.getTickingChunks().size(), 2);
+        checkSize("entity owners", entities.getChunks().size() + entities.getTickingChunks().size(), 3);
+        checkSize("block owners of chunk A", blocks.getOwners(CHUNK_A).size(), 2);
+        checkSize("entity owners of chunk B", entities.getOwners(CHUNK_B).size(), 2);
+        checkSize("block owners of the mod", blocks.getOwners(MODID).size(), 2);
+        checkSize("block owners of the missing mod", blocks.getOwners("forced_chunk_save_format_test_missing").size(), 0);
+    }
+
+    private static <T extends Comparable<? super T>> void checkChunks(Map<TicketOwner<T>, LongSet> tickets, T owner, long... expected) {
+        for (Map.Entry<TicketOwner<T>, LongSet> entry : tickets.entrySet()) {
+            if (entry.getKey().getOwner().equals(owner)) {
+                if (!entry.getKey().getModId().equals(MODID))
+                    throw new AssertionError("Expected the tickets of " + owner + " to belong to " + MODID + ", got " + entry.getKey().getModId() + ".");
+                LongSet chunks = entry.getValue();
+                checkSize("chunks of " + owner, chunks.size(), expected.length);
+                for (long chunk : expected) {
+                    if (!chunks.contains(chunk))
+                        throw new AssertionError("Expected " + owner + " to force chunk " + new ChunkPos(chunk) + ".");
+                }
+                return;
+            }
+        }
+        throw new AssertionError("Expected " + owner + " to force chunks.");
+    }
+
+    private static <T extends Comparable<? super T>> void checkEqual(TicketTracker<T> expected, TicketTracker<T> actual) {
+        if (!expected.getChunks().equals(actual.getChunks()) || !expected.getTickingChunks().equals(actual.getTickingChunks()))
+            throw new AssertionError("Expected the tickets read back from the compact format to match the written tickets.");
+    }
+
+    private static void checkSize(String name, int actual, int expected) {
+        if (actual != expected)
+            throw new AssertionError("Expected " + expected + " " + name + ", got " + actual + ".");
+    }
+}
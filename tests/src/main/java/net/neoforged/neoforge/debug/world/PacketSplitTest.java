@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.neoforge.debug.world;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import net.minecraft.network.ConnectionProtocol;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.network.protocol.PacketFlow;
+import net.minecraft.network.protocol.common.ClientboundCustomPayloadPacket;
+import net.minecraft.resources.ResourceLocation;
+import net.neoforged.fml.common.Mod;
+import net.neoforged.fml.event.lifecycle.FMLCommonSetupEvent;
+import net.neoforged.fml.javafmlmod.FMLJavaModLoadingContext;
+import net.neoforged.neoforge.network.custom.payload.SimplePayload;
+import net.neoforged.neoforge.network.filters.VanillaPacketSplitter;
+import org.apache.logging.log4j.LogManager;
+
+/**
+ * Tests for splitting packets with {@link VanillaPacketSplitter}, that run when the mod is loaded.
+ * A packet too large for the vanilla protocol is split, and its parts must fit in a custom payload and reassemble into the original packet data.
+ * If one of the tests fails, an exception will be thrown, and mod loading will fail with an error.
+ * <p>
+ * See {@link LoginPacketSplitTest} to test splitting with an actual connection.
+ */
+@Mod(PacketSplitTest.MODID)
+public class PacketSplitTest {
+    public static final String MODID = "packet_split_test";
+    private static final ResourceLocation SPLIT_CHANNEL = new ResourceLocation("neoforge", "split");
+    private static final int MAX_PAYLOAD_SIZE = 1048576;
+
+    public PacketSplitTest() {
+        FMLJavaModLoadingContext.get().getModEventBus().addListener(PacketSplitTest::runTests);
+    }
+
+    private static void runTests(FMLCommonSetupEvent commonSetupEvent) {
+        test_smallPacketIsNotSplit();
+        test_largePacketIsSplit();
+
+        LogManager.getLogger().info("PacketSplitTest ok!");
+    }
+
+    private static void test_smallPacketIsNotSplit() {
+        Packet<?> packet = createPayloadPacket(1024);
+        List<Packet<?>> out = new ArrayList<>();
+        VanillaPacketSplitter.appendPackets(ConnectionProtocol.PLAY, PacketFlow.CLIENTBOUND, packet, out);
+        if (out.size() != 1 || out.get(0) != packet)
+            throw new AssertionError("Expected a small packet to be sent as is, got " + out.size() + " packets.");
+    }
+
+    private static void test_largePacketIsSplit() {
+        Packet<?> packet = createPayloadPacket(9 * 1024 * 1024);
+        FriendlyByteBuf expected = new FriendlyByteBuf(Unpooled.buffer());
+        packet.write(expected);
+        int packetId = ConnectionProtocol.PLAY.codec(PacketFlow.CLIENTBOUND).packetId(packet);
+
+        List<Packet<?>> out = new ArrayList<>();
+        VanillaPacketSplitter.appendPackets(ConnectionProtocol.PLAY, PacketFlow.CLIENTBOUND, packet, out);
+        if (out.size() < 2)
+            throw new AssertionError("Expected a packet of " + expected.readableBytes() + " bytes to be split, got " + out.size() + " packets.");
+
+        FriendlyByteBuf reassembled = new FriendlyByteBuf(Unpooled.buffer(expected.readableBytes()));
+        for (int i = 0; i < out.size(); i++) {
+            if (!(out.get(i) instanceof ClientboundCustomPayloadPacket customPayloadPacket) || !(customPayloadPacket.payload() instanceof SimplePayload payload))
+                throw new AssertionError("Expected part " + i + " to be a custom payload packet.");
+            if (!payload.id().equals(SPLIT_CHANNEL))
+                throw new AssertionError("Expected part " + i + " to be sent on " + SPLIT_CHANNEL + ", got " + payload.id() + ".");
+
+            FriendlyByteBuf written = new FriendlyByteBuf(Unpooled.buffer());
+            payload.write(written);
+            if (written.readableBytes() > MAX_PAYLOAD_SIZE)
+                throw new AssertionError("Part " + i + " is " + written.readableBytes() + " bytes, more than a custom payload may contain.");
+            written.release();
+
+            ByteBuf part = payload.payload().duplicate();
+            int state = part.readByte();
+            int expectedState = i == 0 ? 1 : i == out.size() - 1 ? 2 : 0;
+            if (state != expectedState)
+                throw new AssertionError("Expected part " + i + " to have state " + expectedState + ", got " + state + ".");
+            if (i == 0) {
+                int partPacketId = new FriendlyByteBuf(part).readVarInt();
+                if (partPacketId != packetId)
+                    throw new AssertionError("Expected the first part to start with packet id " + packetId + ", got " + partPacketId + ".");
+            }
+            reassembled.writeBytes(part);
+            payload.payload().release();
+        }
+
+        if (!ByteBufUtil.equals(expected, reassembled))
+            throw new AssertionError("Expected the parts to reassemble into the data of the packet.");
+        expected.release();
+        reassembled.release();
+    }
+
+    private static Packet<?> createPayloadPacket(int size) {
+        byte[] data = new byte[size];
+        new Random(size).nextBytes(data);
+        return new ClientboundCustomPayloadPacket(SimplePayload.outbound(data, 0, new ResourceLocation(MODID, "data")));
+    }
+}